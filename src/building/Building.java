@@ -1,23 +1,64 @@
 package building;
 
+import building.enums.CapacityMode;
+import building.enums.Direction;
 import building.enums.ElevatorSystemStatus;
+import building.enums.OverflowPolicy;
 import elevator.Elevator;
 import elevator.ElevatorReport;
-import java.util.LinkedList;
+import elevator.ElevatorSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import scanerzus.Request;
+import scanerzus.RequestPriority;
 
 /**
  * This class represents a building.
  */
 public class Building implements BuildingInterface {
   private final int numberOfFloors;
-  private final int numberOfElevators;
-  private final int elevatorCapacity;
-  private final Elevator[] elevators;
-  private List<Request> upRequests = new LinkedList<>();
-  private List<Request> downRequests = new LinkedList<>();
+  private int numberOfElevators;
+  private int elevatorCapacity;
+  private List<ElevatorBank> banks;
+  private Elevator[] elevators;
+  private boolean[] inMaintenance;
+  private int retiringFrom;
+  private final Map<Integer, PackedRequests> transfers = new HashMap<>();
+  private final Map<Request, PackedRequests> transferLegs = new IdentityHashMap<>();
+  // Requests are equal only to themselves, so this is keyed by identity, and
+  // the second legs are released in the order their first legs were given out.
+  private final Map<Request, Integer> transferElevators = new LinkedHashMap<>();
+  private final HallCalls hallCalls;
+  private final HallCalls[] lanes = new HallCalls[RequestPriority.values().length];
   private ElevatorSystemStatus systemStatus;
+  private Dispatcher dispatcher = new FifoDispatcher();
+  private CapacityMode capacityMode = CapacityMode.requestCount;
+  private final Dispatcher fifoDispatcher = new FifoDispatcher();
+  private int maxWait;
+  private int queueBound;
+  private OverflowPolicy overflowPolicy = OverflowPolicy.reject;
+  private final int[] overflows = new int[OverflowPolicy.values().length];
+  private int coalescedRequests;
+  private final RequestTracker requestTracker;
+  private int cancelledRequests;
+  private int expiredRequests;
+  private final TreeMap<Integer, List<Request>> scheduledRequests = new TreeMap<>();
+  private final Map<Long, Integer> scheduledSteps = new HashMap<>();
+  private int droppedScheduledRequests;
+  private int steps;
+  private int drainStartWork;
+  private TerminalWaitPolicy terminalWaitPolicy = new FixedTerminalWait();
+  private DemandModel demandModel;
+  private FaultInjector faultInjector;
+  private final HealthMonitor healthMonitor;
 
   /**
    * The constructor for the building.
@@ -41,123 +82,1500 @@ public class Building implements BuildingInterface {
       this.numberOfFloors = numberOfFloors;
       this.numberOfElevators = numberOfElevators;
       this.elevatorCapacity = elevatorCapacity;
+      this.banks = List.of(new ElevatorBank("All floors", numberOfElevators, null, 1));
       this.elevators = new Elevator[numberOfElevators];
+      this.inMaintenance = new boolean[numberOfElevators];
+      this.healthMonitor = new HealthMonitor(numberOfElevators, 0);
+      this.retiringFrom = numberOfElevators;
+      this.demandModel = new DemandModel(numberOfFloors, 0.1);
+      this.hallCalls = new HallCalls(numberOfFloors);
+      this.requestTracker = new RequestTracker(numberOfFloors);
+      this.lanes[RequestPriority.normal.ordinal()] = this.hallCalls;
       initializeElevators();
     }
     this.systemStatus = ElevatorSystemStatus.outOfService;
   }
 
+  /**
+   * The constructor for a building with zoned elevator banks.
+   * The elevators are numbered bank by bank in the order of the list.
+   *
+   * @param numberOfFloors   the number of floors in the building.
+   * @param elevatorCapacity the capacity of the elevators
+   *                         in banks without a spec.
+   * @param banks            the elevator banks of the building.
+   * @throws IllegalArgumentException if the number of floors or elevator capacity
+   *                                  is less than 1, there are no banks, or a bank
+   *                                  does not match the floors of the building.
+   */
+  public Building(int numberOfFloors, int elevatorCapacity,
+                  List<ElevatorBank> banks) throws IllegalArgumentException {
+    if (numberOfFloors <= 1) {
+      throw new IllegalArgumentException("The number "
+          + "of floors must be greater than 1.");
+    } else if (elevatorCapacity < 1) {
+      throw new IllegalArgumentException("The elevator capacity must be greater than 0.");
+    } else if (banks == null || banks.isEmpty()) {
+      throw new IllegalArgumentException("The building must have at least one elevator bank.");
+    }
+    int elevatorsInBanks = 0;
+    for (ElevatorBank bank : banks) {
+      boolean[] servedFloors = bank.getServedFloors();
+      if (servedFloors != null && servedFloors.length != numberOfFloors) {
+        throw new IllegalArgumentException("The floors of bank " + bank.getName()
+            + " do not match the number of floors.");
+      }
+      elevatorsInBanks += bank.getNumberOfElevators();
+    }
+    this.numberOfFloors = numberOfFloors;
+    this.numberOfElevators = elevatorsInBanks;
+    this.elevatorCapacity = elevatorCapacity;
+    this.banks = List.copyOf(banks);
+    this.elevators = new Elevator[elevatorsInBanks];
+    this.inMaintenance = new boolean[elevatorsInBanks];
+    this.healthMonitor = new HealthMonitor(elevatorsInBanks, 0);
+    this.retiringFrom = elevatorsInBanks;
+    this.demandModel = new DemandModel(numberOfFloors, 0.1);
+    this.hallCalls = new HallCalls(numberOfFloors);
+    this.requestTracker = new RequestTracker(numberOfFloors);
+    this.lanes[RequestPriority.normal.ordinal()] = this.hallCalls;
+    initializeElevators();
+    this.systemStatus = ElevatorSystemStatus.outOfService;
+  }
+
+  /**
+   * The copy constructor for the building, used by fork().
+   *
+   * @param other the building to copy.
+   */
+  private Building(Building other) {
+    this.numberOfFloors = other.numberOfFloors;
+    this.numberOfElevators = other.numberOfElevators;
+    this.elevatorCapacity = other.elevatorCapacity;
+    this.banks = other.banks;
+    this.elevators = new Elevator[other.elevators.length];
+    for (int i = 0; i < other.elevators.length; ++i) {
+      this.elevators[i] = new Elevator(other.elevators[i]);
+    }
+    this.inMaintenance = other.inMaintenance.clone();
+    this.retiringFrom = other.retiringFrom;
+    this.hallCalls = new HallCalls(other.hallCalls);
+    for (int i = 0; i < this.lanes.length; ++i) {
+      if (other.lanes[i] == other.hallCalls) {
+        this.lanes[i] = this.hallCalls;
+      } else if (other.lanes[i] != null) {
+        this.lanes[i] = new HallCalls(other.lanes[i]);
+      }
+    }
+    for (Map.Entry<Integer, PackedRequests> entry : other.transfers.entrySet()) {
+      this.transfers.put(entry.getKey(), new PackedRequests(entry.getValue()));
+    }
+    for (Map.Entry<Request, PackedRequests> entry : other.transferLegs.entrySet()) {
+      this.transferLegs.put(entry.getKey(), new PackedRequests(entry.getValue()));
+    }
+    this.transferElevators.putAll(other.transferElevators);
+    this.systemStatus = other.systemStatus;
+    this.dispatcher = other.dispatcher;
+    this.capacityMode = other.capacityMode;
+    this.maxWait = other.maxWait;
+    this.queueBound = other.queueBound;
+    this.overflowPolicy = other.overflowPolicy;
+    System.arraycopy(other.overflows, 0, this.overflows, 0, this.overflows.length);
+    this.coalescedRequests = other.coalescedRequests;
+    this.requestTracker = new RequestTracker(other.requestTracker);
+    this.cancelledRequests = other.cancelledRequests;
+    this.expiredRequests = other.expiredRequests;
+    for (Map.Entry<Integer, List<Request>> entry : other.scheduledRequests.entrySet()) {
+      this.scheduledRequests.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+    this.scheduledSteps.putAll(other.scheduledSteps);
+    this.droppedScheduledRequests = other.droppedScheduledRequests;
+    this.steps = other.steps;
+    this.drainStartWork = other.drainStartWork;
+    this.terminalWaitPolicy = other.terminalWaitPolicy;
+    this.demandModel = new DemandModel(other.demandModel);
+    this.faultInjector = other.faultInjector == null
+        ? null : new FaultInjector(other.faultInjector);
+    this.healthMonitor = new HealthMonitor(other.healthMonitor);
+  }
+
   /**
    * This method is used to initialize the elevators in the building.
+   * The building owns the elevator ids, so the id of each elevator is its index.
+   */
+  private void initializeElevators() {
+    int id = 0;
+    for (ElevatorBank bank : this.banks) {
+      for (int i = 0; i < bank.getNumberOfElevators(); ++i) {
+        this.elevators[id] = this.newElevator(id, bank);
+        ++id;
+      }
+    }
+  }
+
+  /**
+   * This method is used to create an elevator of a bank.
+   *
+   * @param id   the id of the elevator.
+   * @param bank the bank of the elevator.
+   * @return the elevator.
+   */
+  private Elevator newElevator(int id, ElevatorBank bank) {
+    if (bank.getSpec() != null) {
+      return new Elevator(id, numberOfFloors, bank.getSpec());
+    } else if (bank.getDoorDwell() != null) {
+      return new Elevator(id, numberOfFloors, new ElevatorSpec(this.elevatorCapacity, 1, 3,
+          bank.getServedFloors(), bank.getExpressSpeed()).withDoorDwell(bank.getDoorDwell()));
+    }
+    return new Elevator(id, numberOfFloors, this.elevatorCapacity,
+        bank.getServedFloors(), bank.getExpressSpeed());
+  }
+
+  @Override
+  public void setNumberOfElevators(int numberOfElevators)
+      throws IllegalArgumentException, IllegalStateException {
+    this.checkNumberOfElevators(numberOfElevators);
+
+    if (numberOfElevators < this.retiringFrom) {
+      for (int i = numberOfElevators; i < this.retiringFrom; ++i) {
+        this.releaseElevator(i);
+      }
+      this.retiringFrom = numberOfElevators;
+    } else {
+      // Elevators still on their way out are kept before new ones are added.
+      int firstRetiring = this.retiringFrom;
+      int oldNumber = this.elevators.length;
+      this.retiringFrom = numberOfElevators;
+      if (numberOfElevators > oldNumber) {
+        this.resizeElevators(numberOfElevators);
+        for (int i = oldNumber; i < numberOfElevators; ++i) {
+          this.elevators[i] = this.newElevator(i, this.banks.get(0));
+        }
+      }
+      for (int i = firstRetiring; i < numberOfElevators; ++i) {
+        this.restoreElevator(i);
+      }
+    }
+    this.removeRetiredElevators();
+  }
+
+  /**
+   * This method is used to remove the elevators that were asked to leave once
+   * they wait out of service on the ground floor.  Elevators leave from the end,
+   * so an elevator only leaves after the ones behind it.  When the building is
+   * out of service the elevators are idle, so they leave at once.
+   */
+  private void removeRetiredElevators() {
+    if (!this.transferElevators.isEmpty()) {
+      this.releaseTransfers();
+    }
+    int length = this.elevators.length;
+    while (length > this.retiringFrom) {
+      Elevator elevator = this.elevators[length - 1];
+      if (elevator.getCurrentFloor() != 0
+          || elevator.isDoorClosed() && this.systemStatus != ElevatorSystemStatus.outOfService
+          || !elevator.getElevatorStatus().isOutOfService()
+          || this.transferElevators.containsValue(length - 1)) {
+        break;
+      }
+      --length;
+    }
+    if (length < this.elevators.length) {
+      this.resizeElevators(length);
+    }
+  }
+
+  /**
+   * This method is used to resize the elevators and their state, keeping the
+   * elevators at the front.
+   *
+   * @param numberOfElevators the new number of elevators.
+   */
+  private void resizeElevators(int numberOfElevators) {
+    this.elevators = Arrays.copyOf(this.elevators, numberOfElevators);
+    this.inMaintenance = Arrays.copyOf(this.inMaintenance, numberOfElevators);
+    this.healthMonitor.resize(numberOfElevators);
+    this.numberOfElevators = numberOfElevators;
+    this.banks = List.of(this.banks.get(0).withElevators(numberOfElevators));
+  }
+
+  /**
+   * This method is used to check that the number of elevators can be changed to a number.
+   *
+   * @param numberOfElevators the new number of elevators.
+   * @throws IllegalArgumentException if the number of elevators is less than 1.
+   * @throws IllegalStateException    if the building has more than one elevator bank.
+   */
+  private void checkNumberOfElevators(int numberOfElevators)
+      throws IllegalArgumentException, IllegalStateException {
+    if (numberOfElevators < 1) {
+      throw new IllegalArgumentException("The number of elevators must be greater than 0.");
+    } else if (this.banks.size() != 1) {
+      throw new IllegalStateException("The number of elevators can only be changed "
+          + "in a building with one elevator bank.");
+    }
+  }
+
+  /**
+   * This method is used to check that a capacity fits the elevators, even
+   * when every bank has a spec, since the building still reports it.
+   *
+   * @param elevatorCapacity the capacity of the elevators.
+   * @throws IllegalArgumentException if the capacity is not between 3 and 20.
+   */
+  private static void checkElevatorCapacity(int elevatorCapacity)
+      throws IllegalArgumentException {
+    if (elevatorCapacity < 3 || elevatorCapacity > 20) {
+      throw new IllegalArgumentException("The elevator capacity must be between 3 and 20.");
+    }
+  }
+
+  @Override
+  public void setElevatorCapacity(int elevatorCapacity) throws IllegalArgumentException {
+    checkElevatorCapacity(elevatorCapacity);
+    int id = 0;
+    for (ElevatorBank bank : this.banks) {
+      for (int i = 0; i < bank.getNumberOfElevators(); ++i) {
+        if (bank.getSpec() == null) {
+          this.elevators[id].setMaxOccupancy(elevatorCapacity);
+        }
+        ++id;
+      }
+    }
+    this.elevatorCapacity = elevatorCapacity;
+  }
+
+  @Override
+  public void setElevators(int numberOfElevators, int elevatorCapacity)
+      throws IllegalArgumentException, IllegalStateException {
+    checkElevatorCapacity(elevatorCapacity);
+    this.checkNumberOfElevators(numberOfElevators);
+    this.setElevatorCapacity(elevatorCapacity);
+    this.setNumberOfElevators(numberOfElevators);
+  }
+
+  /**
+   * This method is used to get the elevator banks of the building.
+   *
+   * @return the elevator banks.
+   */
+  public List<ElevatorBank> getBanks() {
+    return this.banks;
+  }
+
+  @Override
+  public ElevatorSystemStatus getSystemStatus() {
+    return this.systemStatus;
+  }
+
+  @Override
+  public int getNumberOfElevators() {
+    return this.numberOfElevators;
+  }
+
+  @Override
+  public int getElevatorCapacity() {
+    return this.elevatorCapacity;
+  }
+
+  @Override
+  public int getNumberOfFloors() {
+    return this.numberOfFloors;
+  }
+
+  @Override
+  public Elevator[] getElevators() {
+    return this.elevators;
+  }
+
+  /**
+   * This method is used to set the dispatcher that chooses the requests
+   * for each elevator.
+   *
+   * @param dispatcher the dispatcher for the building.
+   * @throws IllegalArgumentException if the dispatcher is null.
+   */
+  public void setDispatcher(Dispatcher dispatcher) throws IllegalArgumentException {
+    if (dispatcher == null) {
+      throw new IllegalArgumentException("Dispatcher cannot be null.");
+    }
+    this.dispatcher = dispatcher;
+  }
+
+  /**
+   * This method is used to get the dispatcher of the building.
+   *
+   * @return the dispatcher of the building.
+   */
+  public Dispatcher getDispatcher() {
+    return this.dispatcher;
+  }
+
+  /**
+   * This method is used to set how the elevator capacity limits a batch of requests.
+   *
+   * @param capacityMode the capacity mode of the building.
+   * @throws IllegalArgumentException if the capacity mode is null.
+   */
+  public void setCapacityMode(CapacityMode capacityMode) throws IllegalArgumentException {
+    if (capacityMode == null) {
+      throw new IllegalArgumentException("Capacity mode cannot be null.");
+    }
+    this.capacityMode = capacityMode;
+  }
+
+  /**
+   * This method is used to get how the elevator capacity limits a batch of requests.
+   *
+   * @return the capacity mode of the building.
+   */
+  public CapacityMode getCapacityMode() {
+    return this.capacityMode;
+  }
+
+  /**
+   * This method is used to set the longest a request may wait before it is
+   * served next.  When the oldest request an elevator can serve has waited
+   * this long, the elevator takes the oldest requests first, whatever the
+   * dispatcher would choose.
+   *
+   * @param maxWait the maximum wait in steps, or 0 for no maximum.
+   * @throws IllegalArgumentException if the maximum wait is negative.
+   */
+  public void setMaxWait(int maxWait) throws IllegalArgumentException {
+    if (maxWait < 0) {
+      throw new IllegalArgumentException("The maximum wait cannot be negative.");
+    }
+    this.maxWait = maxWait;
+  }
+
+  /**
+   * This method is used to get the longest a request may wait before it is served next.
+   *
+   * @return the maximum wait in steps, or 0 for no maximum.
+   */
+  public int getMaxWait() {
+    return this.maxWait;
+  }
+
+  /**
+   * This method is used to set how many riders may wait for the elevators.
+   * A request that arrives when the queue is full is handled by the overflow policy.
+   * The bound is not a hard cap under coalesce, which takes riders onto calls
+   * that already wait however far the queue is past the bound.
+   *
+   * @param queueBound the most riders waiting, or 0 for no bound.
+   * @throws IllegalArgumentException if the bound is negative.
+   */
+  public void setQueueBound(int queueBound) throws IllegalArgumentException {
+    if (queueBound < 0) {
+      throw new IllegalArgumentException("The queue bound cannot be negative.");
+    }
+    this.queueBound = queueBound;
+  }
+
+  /**
+   * This method is used to get how many riders may wait for the elevators.
+   *
+   * @return the most riders waiting, or 0 for no bound.
+   */
+  public int getQueueBound() {
+    return this.queueBound;
+  }
+
+  /**
+   * This method is used to set what happens to a request that arrives when the queue is full.
+   * Reject turns the request away.  Drop oldest makes room by dropping the
+   * oldest request of the lowest priority lane, never from a lane above the
+   * new request, and turns it away if those lanes cannot make room.  Coalesce only takes the
+   * request if a call already waits at its floor in its direction, so it
+   * adds no new call, and turns it away otherwise.
+   *
+   * @param overflowPolicy the overflow policy.
+   * @throws IllegalArgumentException if the policy is null.
+   */
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) throws IllegalArgumentException {
+    if (overflowPolicy == null) {
+      throw new IllegalArgumentException("The overflow policy cannot be null.");
+    }
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * This method is used to get what happens to a request that arrives when the queue is full.
+   *
+   * @return the overflow policy.
+   */
+  public OverflowPolicy getOverflowPolicy() {
+    return this.overflowPolicy;
+  }
+
+  /**
+   * This method is used to get how many requests an overflow policy has turned
+   * away, and for drop oldest, how many waiting requests it has dropped as well.
+   *
+   * @param overflowPolicy the overflow policy.
+   * @return the number of requests.
+   */
+  public int getOverflows(OverflowPolicy overflowPolicy) {
+    return this.overflows[overflowPolicy.ordinal()];
+  }
+
+  /**
+   * This method is used to get how many requests were taken over the queue
+   * bound because a call already waited at their floor.
+   *
+   * @return the number of coalesced requests.
+   */
+  public int getCoalescedRequests() {
+    return this.coalescedRequests;
+  }
+
+  /**
+   * This method is used to get the number of riders waiting for the elevators in all lanes.
+   *
+   * @return the number of riders waiting.
+   */
+  public int getQueueSize() {
+    int size = 0;
+    for (HallCalls lane : this.lanes) {
+      if (lane != null) {
+        size += lane.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * This method is used to check if the queue is at its bound, so new
+   * requests are subject to the overflow policy.  Riders coalesced onto
+   * waiting calls can take the queue past the bound.
+   *
+   * @return true if the queue is full.
+   */
+  public boolean isQueueFull() {
+    return this.queueBound > 0 && this.getQueueSize() >= this.queueBound;
+  }
+
+  /**
+   * This method is used to get how many steps the oldest waiting request has waited.
+   *
+   * @return the age of the oldest waiting request, or 0 if no request is waiting.
+   */
+  public int getOldestWaitingAge() {
+    int oldest = -1;
+    for (HallCalls lane : this.lanes) {
+      if (lane != null && !lane.isEmpty()
+          && (oldest < 0 || lane.getOldestArrivalStep() < oldest)) {
+        oldest = lane.getOldestArrivalStep();
+      }
+    }
+    return oldest < 0 ? 0 : this.steps - oldest;
+  }
+
+  /**
+   * This method is used to set how long elevators wait at the top and bottom floor.
+   *
+   * @param terminalWaitPolicy the terminal wait policy of the building.
+   * @throws IllegalArgumentException if the terminal wait policy is null.
+   */
+  public void setTerminalWaitPolicy(TerminalWaitPolicy terminalWaitPolicy)
+      throws IllegalArgumentException {
+    if (terminalWaitPolicy == null) {
+      throw new IllegalArgumentException("Terminal wait policy cannot be null.");
+    }
+    this.terminalWaitPolicy = terminalWaitPolicy;
+  }
+
+  /**
+   * This method is used to get how long elevators wait at the top and bottom floor.
+   *
+   * @return the terminal wait policy of the building.
+   */
+  public TerminalWaitPolicy getTerminalWaitPolicy() {
+    return this.terminalWaitPolicy;
+  }
+
+  /**
+   * This method is used to set the model of the request arrivals, for example
+   * to change the periods of the day it keeps a history for.
+   *
+   * @param demandModel the demand model of the building.
+   * @throws IllegalArgumentException if the demand model is null or does not
+   *                                  match the number of floors.
+   */
+  public void setDemandModel(DemandModel demandModel) throws IllegalArgumentException {
+    if (demandModel == null) {
+      throw new IllegalArgumentException("Demand model cannot be null.");
+    }
+    if (demandModel.getNumberOfFloors() != this.numberOfFloors) {
+      throw new IllegalArgumentException("The floors of the demand model "
+          + "do not match the number of floors.");
+    }
+    this.demandModel = demandModel;
+  }
+
+  /**
+   * This method is used to get the smoothed request arrivals of the building.
+   *
+   * @return the demand model of the building.
+   */
+  public DemandModel getDemandModel() {
+    return this.demandModel;
+  }
+
+  /**
+   * This method is used to set the faults to inject into the elevators.
+   *
+   * @param faultInjector the fault injector, or null to inject no faults.
+   */
+  public void setFaultInjector(FaultInjector faultInjector) {
+    this.faultInjector = faultInjector;
+  }
+
+  /**
+   * This method is used to get the faults to inject into the elevators.
+   *
+   * @return the fault injector, or null if no faults are injected.
+   */
+  public FaultInjector getFaultInjector() {
+    return this.faultInjector;
+  }
+
+  /**
+   * This method is used to get the health monitor that fails over elevators
+   * that stop making progress.  The monitor is off until its timeout is set.
+   *
+   * @return the health monitor of the building.
+   */
+  public HealthMonitor getHealthMonitor() {
+    return this.healthMonitor;
+  }
+
+  /**
+   * This method is used to get the hall calls of the normal lane.
+   *
+   * @return the hall calls of the building.
+   */
+  HallCalls getHallCalls() {
+    return this.hallCalls;
+  }
+
+  /**
+   * This method is used to get the hall calls of a priority lane.
+   * The lanes other than the normal lane are only made when first used.
+   *
+   * @param priority the priority lane.
+   * @return the hall calls of the lane.
+   */
+  HallCalls getLane(RequestPriority priority) {
+    HallCalls lane = this.lanes[priority.ordinal()];
+    if (lane == null) {
+      lane = new HallCalls(this.numberOfFloors, priority);
+      this.lanes[priority.ordinal()] = lane;
+    }
+    return lane;
+  }
+
+  /**
+   * This method is used to check if a rider waits in a lane other than the normal lane.
+   *
+   * @return true if the priority lanes have calls.
+   */
+  private boolean hasPriorityCalls() {
+    for (HallCalls lane : this.lanes) {
+      if (lane != null && lane != this.hallCalls && !lane.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * This method is used to check if any rider waits for an elevator.
+   *
+   * @return true if there are no calls in any lane.
+   */
+  boolean hasNoCalls() {
+    return this.hallCalls.isEmpty() && !this.hasPriorityCalls();
+  }
+
+  /**
+   * This method is used to check if an elevator can serve a call of any lane in a direction.
+   *
+   * @param elevator the elevator.
+   * @param up       true for up calls, false for down calls.
+   * @return true if the elevator serves both floors of a call.
+   */
+  boolean hasServableCall(Elevator elevator, boolean up) {
+    for (HallCalls lane : this.lanes) {
+      if (lane != null && lane.hasServableCall(elevator, up)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * This method is used to check if another elevator of the same floors is
+   * already waiting at the other end of an elevator or running empty towards it.
+   *
+   * @param elevator the elevator.
+   * @param atBottom true if the elevator is at its bottom floor.
+   * @return true if the other end is covered.
+   */
+  boolean isOtherEndCovered(Elevator elevator, boolean atBottom) {
+    int otherEnd = atBottom ? elevator.getHighestFloor() : elevator.getLowestFloor();
+    for (Elevator other : this.elevators) {
+      if (other == elevator
+          || other.getLowestFloor() != elevator.getLowestFloor()
+          || other.getHighestFloor() != elevator.getHighestFloor()) {
+        continue;
+      }
+      if (other.isWaitingAtTerminal() && other.getCurrentFloor() == otherEnd) {
+        return true;
+      }
+      if (isRunningEmpty(other)
+          && other.getDirection() == (atBottom ? Direction.UP : Direction.DOWN)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * This method is used to check if an elevator is in service and running
+   * between its top and bottom floor without stops to make.
+   *
+   * @param elevator the elevator.
+   * @return true if the elevator is running empty.
+   */
+  static boolean isRunningEmpty(Elevator elevator) {
+    if (elevator.isTakingRequests() || elevator.getDirection() == Direction.STOPPED) {
+      return false;
+    }
+    for (boolean floorRequest : elevator.getFloorRequests()) {
+      if (floorRequest) {
+        return false;
+      }
+    }
+    return !elevator.getElevatorStatus().isOutOfService();
+  }
+
+  /**
+   * This method is used to get the average number of stops the elevators
+   * made on their finished trips.
+   *
+   * @return the stops per trip, or 0 if no trip has finished.
+   */
+  public double getStopsPerTrip() {
+    int trips = 0;
+    int stops = 0;
+    for (Elevator elevator : this.elevators) {
+      trips += elevator.getTrips();
+      stops += elevator.getTripStops();
+    }
+    return trips == 0 ? 0 : (double) stops / trips;
+  }
+
+  /**
+   * This method is used to get the average number of steps from an elevator
+   * taking requests until it is ready for the next requests.
+   *
+   * @return the round trip time, or 0 if no trip has finished.
+   */
+  public double getRoundTripTime() {
+    int trips = 0;
+    int time = 0;
+    for (Elevator elevator : this.elevators) {
+      trips += elevator.getTrips();
+      time += elevator.getTripTime();
+    }
+    return trips == 0 ? 0 : (double) time / trips;
+  }
+
+  /**
+   * This method is used to start a new batch of requests for an elevator.
+   *
+   * @param elevator the elevator the batch is for.
+   * @return an empty route load for the elevator.
+   */
+  RouteLoad newRouteLoad(Elevator elevator) {
+    return new RouteLoad(this.numberOfFloors, elevator.getMaxOccupancy(), this.capacityMode);
+  }
+
+  @Override
+  public Building fork() {
+    return new Building(this);
+  }
+
+  @Override
+  public boolean addRequest(Request request) throws IllegalStateException {
+    if (getSystemStatus() == ElevatorSystemStatus.running) {
+      this.checkRequest(request);
+      if (request.getStartFloor() == request.getEndFloor()) {
+        return false;
+      } else {
+        return this.admitRequest(request);
+      }
+    } else {
+      throw new IllegalStateException("Request rejected. "
+          + "The elevator system is not running.");
+    }
+  }
+
+  /**
+   * This method is used to check that a request is for floors of the building.
+   *
+   * @param request the request to check.
+   * @throws IllegalArgumentException if the request is null, its time to live
+   *                                  is negative, it has no passengers or
+   *                                  more than a request can hold, or a
+   *                                  floor is not in the building.
+   */
+  private void checkRequest(Request request) throws IllegalArgumentException {
+    if (request == null) {
+      throw new IllegalArgumentException("Request cannot be null.");
+    } else if (request.getTtl() < 0) {
+      throw new IllegalArgumentException("The time to live cannot be negative.");
+    } else if (request.getPassengers() < 1) {
+      throw new IllegalArgumentException("A request must have at least one passenger.");
+    } else if (request.getPassengers() > PackedRequests.MAX_PASSENGERS) {
+      throw new IllegalArgumentException("A request cannot have more than "
+          + PackedRequests.MAX_PASSENGERS + " passengers.");
+    } else if (request.getStartFloor() < 0 || request.getStartFloor() >= this.numberOfFloors) {
+      throw new IllegalArgumentException("Start floor must be between 0 and "
+          + (this.numberOfFloors - 1));
+    } else if (request.getEndFloor() < 0 || request.getEndFloor() >= this.numberOfFloors) {
+      throw new IllegalArgumentException("End floor must be between 0 and "
+          + (this.numberOfFloors - 1));
+    }
+  }
+
+  /**
+   * This method is used to schedule a request that becomes active at a future step,
+   * such as a freight move or a meeting known in advance.
+   * The request is added when the building reaches the step while running,
+   * so its time to live and wait start then.  Scheduled requests stay
+   * scheduled when the building stops, and can be cancelled by their id,
+   * so a request can only be scheduled once.
+   *
+   * @param request the request to schedule.
+   * @param step    the step the request becomes active at.
+   * @return true if the request was scheduled, false if its floors are the same.
+   * @throws IllegalArgumentException if the step has passed, a request with
+   *                                  the same id is already scheduled, the
+   *                                  request is not for floors of the
+   *                                  building or no bank or sky lobby
+   *                                  connects its floors.
+   */
+  public boolean scheduleRequest(Request request, int step) throws IllegalArgumentException {
+    this.checkRequest(request);
+    if (step < this.steps) {
+      throw new IllegalArgumentException("The step of a scheduled request cannot have passed.");
+    } else if (this.scheduledSteps.containsKey(request.getId())) {
+      throw new IllegalArgumentException("A request with id " + request.getId()
+          + " is already scheduled.");
+    } else if (request.getStartFloor() == request.getEndFloor()) {
+      return false;
+    }
+    this.findSkyLobby(request);
+    this.scheduledRequests.computeIfAbsent(step, key -> new ArrayList<>()).add(request);
+    this.scheduledSteps.put(request.getId(), step);
+    return true;
+  }
+
+  /**
+   * This method is used to add the scheduled requests that are due by this step.
+   * A request the overflow policy turns away is counted as dropped.
+   */
+  private void releaseScheduledRequests() {
+    while (!this.scheduledRequests.isEmpty() && this.scheduledRequests.firstKey() <= this.steps) {
+      for (Request request : this.scheduledRequests.pollFirstEntry().getValue()) {
+        this.scheduledSteps.remove(request.getId());
+        if (!this.admitRequest(request)) {
+          this.droppedScheduledRequests++;
+        }
+      }
+    }
+  }
+
+  /**
+   * This method is used to get how many scheduled requests were turned away
+   * by the overflow policy when they became active.
+   *
+   * @return the number of dropped scheduled requests.
+   */
+  public int getDroppedScheduledRequests() {
+    return this.droppedScheduledRequests;
+  }
+
+  /**
+   * This method is used to check if a scheduled request an elevator can serve
+   * becomes active soon.
+   *
+   * @param elevator    the elevator.
+   * @param up          true for up requests, false for down requests.
+   * @param withinSteps the steps ahead to look.
+   * @return true if such a request is due within the steps.
+   */
+  public boolean hasScheduledCall(Elevator elevator, boolean up, int withinSteps) {
+    if (this.scheduledRequests.isEmpty()) {
+      return false;
+    }
+    for (List<Request> due : this.scheduledRequests
+        .headMap(this.steps + withinSteps, true).values()) {
+      for (Request request : due) {
+        if ((request.getStartFloor() < request.getEndFloor()) == up
+            && elevator.servesFloor(request.getStartFloor())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * This method is used to get the number of scheduled requests that are not active yet.
+   *
+   * @return the number of scheduled requests.
+   */
+  public int getScheduledRequestCount() {
+    return this.scheduledSteps.size();
+  }
+
+  /**
+   * This method is used to get the current step of the building, which
+   * scheduled requests are timed against.
+   *
+   * @return the number of steps the building has run.
+   */
+  public int getCurrentStep() {
+    return this.steps;
+  }
+
+  @Override
+  public boolean offer(Request request) {
+    try {
+      return this.addRequest(request);
+    } catch (IllegalArgumentException | IllegalStateException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * This method is used to queue a new request unless the queue has no room
+   * for its passengers and the overflow policy turns it away.
+   * A group with more passengers than the bound never fits and is turned away.
+   *
+   * @param request the request to admit.
+   * @return true if the request was queued, false if it was turned away.
+   * @throws IllegalArgumentException if no bank or sky lobby connects the floors.
+   */
+  private boolean admitRequest(Request request) throws IllegalArgumentException {
+    if (this.queueBound > 0 && request.getPassengers() > this.queueBound) {
+      this.overflows[this.overflowPolicy.ordinal()]++;
+      return false;
+    } else if (this.queueBound > 0
+        && this.getQueueSize() + request.getPassengers() > this.queueBound) {
+      switch (this.overflowPolicy) {
+        case dropOldest:
+          if (this.getQueueSize() - this.getQueueSize(request.getPriority())
+              + request.getPassengers() > this.queueBound) {
+            this.overflows[OverflowPolicy.dropOldest.ordinal()]++;
+            return false;
+          }
+          while (this.getQueueSize() + request.getPassengers() > this.queueBound) {
+            this.dropOldestRequest(request.getPriority());
+          }
+          break;
+        case coalesce:
+          if (!this.getLaneOf(request).hasCall(request.getStartFloor(),
+              request.getStartFloor() < request.getEndFloor())) {
+            this.overflows[OverflowPolicy.coalesce.ordinal()]++;
+            return false;
+          }
+          this.coalescedRequests++;
+          break;
+        default:
+          this.overflows[OverflowPolicy.reject.ordinal()]++;
+          return false;
+      }
+    }
+    Request leg = this.routeRequest(request);
+    this.requestTracker.add(request, leg, this.steps,
+        request.getTtl() > 0 ? this.steps + request.getTtl() : -1);
+    return true;
+  }
+
+  /**
+   * This method is used to get the number of riders waiting in the lanes at
+   * or below a priority, which drop oldest may drop to make room for it.
+   *
+   * @param priority the priority of the new request.
+   * @return the number of riders waiting.
+   */
+  private int getQueueSize(RequestPriority priority) {
+    int size = 0;
+    for (int i = priority.ordinal(); i < this.lanes.length; ++i) {
+      if (this.lanes[i] != null) {
+        size += this.lanes[i].size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * This method is used to drop the oldest request of the lowest priority lane
+   * with a waiting request, along with the second leg waiting on it.
+   * Lanes above the priority of the new request are never dropped from.
+   *
+   * @param priority the priority of the new request.
+   */
+  private void dropOldestRequest(RequestPriority priority) {
+    for (int i = this.lanes.length - 1; i >= priority.ordinal(); --i) {
+      HallCalls lane = this.lanes[i];
+      if (lane != null && !lane.isEmpty()) {
+        Request oldest = lane.getOldestRequest();
+        lane.remove(oldest);
+        this.dropSecondLegs(oldest, 1);
+        this.requestTracker.drop(oldest);
+        this.overflows[OverflowPolicy.dropOldest.ordinal()]++;
+        return;
+      }
+    }
+  }
+
+  /**
+   * This method is used to drop the second legs waiting on riders of a first
+   * leg that were withdrawn before they were given to an elevator.
+   * Riders on the same call are alike, so the latest second legs of the call are dropped.
+   *
+   * @param firstLeg the first leg withdrawn.
+   * @param riders   the number of riders withdrawn.
+   */
+  private void dropSecondLegs(Request firstLeg, int riders) {
+    int key = this.getTransferKey(firstLeg);
+    PackedRequests secondLegs = this.transfers.get(key);
+    if (secondLegs != null) {
+      secondLegs.dropLastPassengers(riders);
+      if (secondLegs.isEmpty()) {
+        this.transfers.remove(key);
+      }
+    }
+  }
+
+  @Override
+  public boolean cancelRequest(long requestId) {
+    Integer scheduledStep = this.scheduledSteps.remove(requestId);
+    if (scheduledStep != null) {
+      List<Request> due = this.scheduledRequests.get(scheduledStep);
+      due.removeIf(request -> request.getId() == requestId);
+      if (due.isEmpty()) {
+        this.scheduledRequests.remove(scheduledStep);
+      }
+      this.cancelledRequests++;
+      return true;
+    }
+    boolean cancelled = false;
+    for (RequestTracker.Ticket ticket : this.requestTracker.remove(requestId)) {
+      if (this.withdrawRequest(ticket)) {
+        cancelled = true;
+      }
+      for (Request firstLeg : ticket.getRiding()) {
+        // The riders get off at the sky lobby, so their second legs are never queued.
+        if (this.transferLegs.remove(firstLeg) != null) {
+          cancelled = true;
+        }
+        this.transferElevators.remove(firstLeg);
+      }
+    }
+    if (cancelled) {
+      this.cancelledRequests++;
+    }
+    return cancelled;
+  }
+
+  /**
+   * This method is used to take the requests that expire at this step out of
+   * the hall calls and the stops of the elevators.
+   */
+  private void expireRequests() {
+    for (RequestTracker.Ticket ticket : this.requestTracker.expire(this.steps)) {
+      if (this.withdrawRequest(ticket)) {
+        this.expiredRequests++;
+      }
+    }
+  }
+
+  /**
+   * This method is used to withdraw the riders of a request that have not
+   * boarded, from its call and from the stops of the elevators they were given to.
+   *
+   * @param ticket the ticket of the request.
+   * @return true if a rider was withdrawn, false if all of them have boarded.
+   */
+  private boolean withdrawRequest(RequestTracker.Ticket ticket) {
+    boolean withdrawn = ticket.getWaitingRiders() > 0;
+    if (withdrawn) {
+      Request leg = ticket.getLeg();
+      this.getLaneOf(leg).remove(leg.getStartFloor(), leg.getEndFloor(),
+          ticket.getArrivalStep(), ticket.getWaitingRiders());
+      if (ticket.isTransfer()) {
+        this.dropSecondLegs(ticket.getLeg(), ticket.getWaitingRiders());
+      }
+    }
+    for (Map.Entry<Request, Integer> entry : ticket.getAssigned().entrySet()) {
+      Request assigned = entry.getKey();
+      if (entry.getValue() < this.elevators.length
+          && this.elevators[entry.getValue()].cancelRequest(assigned)) {
+        this.transferLegs.remove(assigned);
+        this.transferElevators.remove(assigned);
+        withdrawn = true;
+      }
+    }
+    return withdrawn;
+  }
+
+  /**
+   * This method is used to get how many requests were cancelled before they boarded.
+   *
+   * @return the number of cancelled requests.
+   */
+  public int getCancelledRequests() {
+    return this.cancelledRequests;
+  }
+
+  /**
+   * This method is used to get how many requests expired before they boarded.
+   *
+   * @return the number of expired requests.
+   */
+  public int getExpiredRequests() {
+    return this.expiredRequests;
+  }
+
+  /**
+   * This method is used to queue a request, splitting it into two legs at a
+   * sky lobby when no elevator bank serves both of its floors.
+   * The second leg is queued when the elevator carrying the first leg
+   * opens its door at the sky lobby.
+   *
+   * @param request the request to queue.
+   * @return the request or its first leg, as it waits in the hall calls.
+   * @throws IllegalArgumentException if no bank or sky lobby connects the floors.
+   */
+  private Request routeRequest(Request request) throws IllegalArgumentException {
+    int skyLobby = this.findSkyLobby(request);
+    if (skyLobby < 0) {
+      this.queueRequest(request);
+      return request;
+    }
+
+    Request firstLeg = new Request(request.getStartFloor(), skyLobby, request.getPriority())
+        .withPassengers(request.getPassengers());
+    this.transfers.computeIfAbsent(this.getTransferKey(firstLeg), key -> new PackedRequests())
+        .addLast(PackedRequests.pack(skyLobby, request.getEndFloor(), request.getPriority(),
+            request.getPassengers()));
+    this.queueRequest(firstLeg);
+    return firstLeg;
+  }
+
+  /**
+   * This method is used to find the sky lobby a request transfers at.
+   *
+   * @param request the request.
+   * @return the sky lobby, or -1 if one bank serves both floors of the request.
+   * @throws IllegalArgumentException if no bank or sky lobby connects the floors.
+   */
+  private int findSkyLobby(Request request) throws IllegalArgumentException {
+    if (this.isServedByOneBank(request.getStartFloor(), request.getEndFloor())) {
+      return -1;
+    }
+
+    int skyLobby = -1;
+    int bestDistance = Integer.MAX_VALUE;
+    for (int floor = 0; floor < this.numberOfFloors; ++floor) {
+      if (floor != request.getStartFloor() && floor != request.getEndFloor()
+          && this.isServedByOneBank(request.getStartFloor(), floor)
+          && this.isServedByOneBank(floor, request.getEndFloor())) {
+        int distance = Math.abs(request.getStartFloor() - floor)
+            + Math.abs(floor - request.getEndFloor());
+        if (distance < bestDistance) {
+          bestDistance = distance;
+          skyLobby = floor;
+        }
+      }
+    }
+    if (skyLobby < 0) {
+      throw new IllegalArgumentException("No elevator bank can take a request from "
+          + request.getStartFloor() + " to " + request.getEndFloor() + ".");
+    }
+    return skyLobby;
+  }
+
+  /**
+   * This method is used to check if a bank serves both floors.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @return true if one bank serves both floors, false otherwise.
    */
-  private void initializeElevators() {
-    for (int i = 0; i < numberOfElevators; ++i) {
-      this.elevators[i] = new Elevator(numberOfFloors, this.elevatorCapacity);
+  private boolean isServedByOneBank(int startFloor, int endFloor) {
+    for (ElevatorBank bank : this.banks) {
+      if (bank.servesFloor(startFloor) && bank.servesFloor(endFloor)) {
+        return true;
+      }
     }
+    return false;
   }
 
-  @Override
-  public ElevatorSystemStatus getSystemStatus() {
-    return this.systemStatus;
+  /**
+   * This method is used to get the key of the transfers waiting on a first leg.
+   *
+   * @param firstLeg the first leg of a transfer.
+   * @return the key of the transfers.
+   */
+  private int getTransferKey(Request firstLeg) {
+    return (firstLeg.getPriority().ordinal() * this.numberOfFloors + firstLeg.getStartFloor())
+        * this.numberOfFloors + firstLeg.getEndFloor();
   }
 
-  @Override
-  public int getNumberOfElevators() {
-    return this.numberOfElevators;
+  /**
+   * This method is used to add a request to the hall calls of its lane.
+   * Only the counts of its call change, so the queue keeps no object for it.
+   *
+   * @param request the request to add.
+   */
+  private void queueRequest(Request request) {
+    int startFloor = request.getStartFloor();
+    int endFloor = request.getEndFloor();
+    this.demandModel.recordArrival(startFloor, startFloor < endFloor, request.getPassengers());
+    this.getLaneOf(request).add(startFloor, endFloor, this.steps, request.getPassengers());
   }
 
-  @Override
-  public int getElevatorCapacity() {
-    return this.elevatorCapacity;
+  /**
+   * This method is used to distribute the requests to the elevators.
+   * An elevator takes up requests on the lowest floor it serves and down
+   * requests on the highest floor it serves.
+   * When several elevators take requests in the same step, the one with the
+   * lowest estimated service time for the oldest request picks first, and
+   * the larger elevator picks first on a tie.
+   */
+  private void distributeRequests() {
+    if (!this.hasNoCalls()) {
+      List<Elevator> takingRequests = new ArrayList<>();
+      for (Elevator elevator : this.elevators) {
+        if (elevator.isTakingRequests()) {
+          takingRequests.add(elevator);
+        }
+      }
+      if (takingRequests.size() > 1) {
+        takingRequests.sort(Comparator
+            .comparingInt(this::estimateOldestServiceTime)
+            .thenComparing(Comparator.comparingInt(Elevator::getMaxOccupancy).reversed()));
+      }
+
+      for (Elevator elevator : takingRequests) {
+        boolean up;
+        if (elevator.getCurrentFloor() == elevator.getLowestFloor()) {
+          up = true;
+        } else if (elevator.getCurrentFloor() == elevator.getHighestFloor()) {
+          up = false;
+        } else {
+          continue;
+        }
+        List<Request> requestsForElevator = this.selectRequests(elevator, up);
+        this.removeCalls(requestsForElevator);
+        requestsForElevator = this.requestTracker.assign(this.indexOf(elevator),
+            requestsForElevator);
+        elevator.processRequests(requestsForElevator);
+        this.trackTransfers(this.indexOf(elevator), requestsForElevator);
+      }
+    }
   }
 
-  @Override
-  public int getNumberOfFloors() {
-    return this.numberOfFloors;
+  /**
+   * This method is used to choose the requests for an elevator taking requests.
+   * When a priority lane has requests the elevator can serve, the lanes are
+   * served from the highest to the lowest, oldest first, and an elevator
+   * taking an emergency request takes no other requests.
+   * Otherwise the dispatcher chooses, unless the oldest request the elevator
+   * can serve has waited the maximum wait, then the oldest requests are taken first.
+   *
+   * @param elevator the elevator taking requests.
+   * @param up       true if the elevator takes up requests.
+   * @return the requests for the elevator.
+   */
+  private List<Request> selectRequests(Elevator elevator, boolean up) {
+    List<Request> servable = this.hallCalls.getServableRequests(elevator, up);
+    if (this.hasPriorityCalls()) {
+      List<Request> laneRequests = new ArrayList<>();
+      for (HallCalls lane : this.lanes) {
+        if (lane != null) {
+          laneRequests.addAll(lane == this.hallCalls
+              ? servable : lane.getServableRequests(elevator, up));
+        }
+      }
+      if (laneRequests.size() > servable.size()) {
+        if (laneRequests.get(0).getPriority() == RequestPriority.emergency) {
+          laneRequests.removeIf(request -> request.getPriority() != RequestPriority.emergency);
+        }
+        return this.fifoDispatcher.selectRequests(this, elevator, laneRequests);
+      }
+    }
+    if (this.maxWait > 0 && !servable.isEmpty()
+        && this.steps - servable.get(0).getArrivalStep() >= this.maxWait) {
+      return this.fifoDispatcher.selectRequests(this, elevator, servable);
+    }
+    return this.dispatcher.selectRequests(this, elevator, servable);
   }
 
-  @Override
-  public Elevator[] getElevators() {
-    return this.elevators;
+  /**
+   * This method is used to remove the calls of the requests given to an elevator.
+   *
+   * @param requests the requests given to the elevator.
+   */
+  private void removeCalls(List<Request> requests) {
+    for (Request request : requests) {
+      if (request.getPriority() == RequestPriority.normal) {
+        this.hallCalls.remove(request);
+      } else {
+        this.getLane(request.getPriority()).remove(request);
+      }
+    }
   }
 
-  @Override
-  public boolean addRequest(Request request) throws IllegalStateException {
-    if (getSystemStatus() == ElevatorSystemStatus.running) {
-      if (request == null) {
-        throw new IllegalArgumentException("Request cannot be null.");
-      } else if (request.getStartFloor() >= 0 && request.getStartFloor() < this.numberOfFloors) {
-        if (request.getEndFloor() >= 0 && request.getEndFloor() < this.numberOfFloors) {
-          if (request.getStartFloor() == request.getEndFloor()) {
-            return false;
-          } else {
-            if (request.getStartFloor() < request.getEndFloor()) {
-              upRequests.add(request);
-            } else {
-              downRequests.add(request);
-            }
-            return true;
-          }
-        } else {
-          throw new IllegalArgumentException("End floor must be between 0 and "
-              + (this.numberOfFloors - 1));
+  /**
+   * This method is used to send an idle elevator to the end where an
+   * emergency or VIP request waits, when no elevator is there or on its way.
+   * An elevator is idle when it waits at the other end with nothing to take.
+   */
+  private void preemptIdleElevators() {
+    for (Elevator elevator : this.elevators) {
+      if (!elevator.isWaitingAtTerminal()) {
+        continue;
+      }
+      boolean atBottom = elevator.getCurrentFloor() == elevator.getLowestFloor();
+      if (this.hasServableCall(elevator, atBottom)) {
+        continue;
+      }
+      for (RequestPriority priority : new RequestPriority[] {
+          RequestPriority.emergency, RequestPriority.vip}) {
+        HallCalls lane = this.lanes[priority.ordinal()];
+        if (lane != null && lane.hasServableCall(elevator, !atBottom)
+            && !this.isOtherEndCovered(elevator, atBottom)) {
+          elevator.setTerminalWait(0);
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * This method is used to let the terminal wait policy adjust the wait of
+   * the elevators waiting at their top or bottom floor.
+   */
+  private void applyTerminalWaits() {
+    for (Elevator elevator : this.elevators) {
+      if (elevator.isWaitingAtTerminal()) {
+        int wait = this.terminalWaitPolicy.getTerminalWait(this, elevator);
+        if (wait >= 0) {
+          elevator.setTerminalWait(wait);
         }
-      } else {
-        throw new IllegalArgumentException("Start floor must be between 0 and "
-            + (this.numberOfFloors - 1));
       }
+    }
+  }
+
+  /**
+   * This method is used to estimate how long an elevator would take to deliver
+   * the oldest queued request it can serve from the floor it is on.
+   *
+   * @param elevator the elevator taking requests.
+   * @return the estimated service time, or Integer.MAX_VALUE if there is no such request.
+   */
+  private int estimateOldestServiceTime(Elevator elevator) {
+    boolean up;
+    if (elevator.getCurrentFloor() == elevator.getLowestFloor()) {
+      up = true;
+    } else if (elevator.getCurrentFloor() == elevator.getHighestFloor()) {
+      up = false;
     } else {
-      throw new IllegalStateException("Request rejected. "
-          + "The elevator system is not running.");
+      return Integer.MAX_VALUE;
     }
+    for (HallCalls lane : this.lanes) {
+      Request oldest = lane == null ? null : lane.getOldestServableRequest(elevator, up);
+      if (oldest != null) {
+        return elevator.estimateServiceTime(oldest);
+      }
+    }
+    return Integer.MAX_VALUE;
   }
 
+  /**
+   * This method is used to remember which elevator carries the first leg of a transfer.
+   * Riders on the same call are alike, so a waiting transfer is matched to
+   * any rider of its first leg call, and a request takes the second legs of
+   * as many riders as it has passengers.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @param requests      the requests given to the elevator.
+   */
+  private void trackTransfers(int elevatorIndex, List<Request> requests) {
+    if (!this.transfers.isEmpty()) {
+      for (Request request : requests) {
+        int key = this.getTransferKey(request);
+        PackedRequests secondLegs = this.transfers.get(key);
+        if (secondLegs != null) {
+          this.transferLegs.put(request, secondLegs.pollPassengers(request.getPassengers()));
+          this.transferElevators.put(request, elevatorIndex);
+          if (secondLegs.isEmpty()) {
+            this.transfers.remove(key);
+          }
+        }
+      }
+    }
+  }
 
   /**
-   * This method is used to distribute the requests to the elevators.
+   * This method is used to queue the second leg of a transfer once the
+   * elevator carrying the first leg opens its door at the end of the first leg.
+   * The second leg keeps the id of the request, so it can still be cancelled or expire.
    */
-  private void distributeRequests() {
-    if (!upRequests.isEmpty() || !downRequests.isEmpty()) {
-      for (Elevator elevator : elevators) {
-        if (elevator.isTakingRequests()) {
-          List<Request> requestsForElevator;
-          if (elevator.getCurrentFloor() == 0) {
-            requestsForElevator = this.getRequests(this.upRequests);
-            elevator.processRequests(requestsForElevator);
-          } else if (elevator.getCurrentFloor() == this.numberOfFloors - 1) {
-            requestsForElevator = this.getRequests(this.downRequests);
-            elevator.processRequests(requestsForElevator);
+  private void releaseTransfers() {
+    Iterator<Map.Entry<Request, Integer>> iterator =
+        this.transferElevators.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Request, Integer> entry = iterator.next();
+      Elevator elevator = this.elevators[entry.getValue()];
+      if (!elevator.isDoorClosed()
+          && elevator.getCurrentFloor() == entry.getKey().getEndFloor()) {
+        PackedRequests secondLegs = this.transferLegs.remove(entry.getKey());
+        RequestTracker.Ticket ticket = this.requestTracker.land(entry.getKey());
+        for (int i = 0; i < secondLegs.size(); ++i) {
+          Request secondLeg = this.routeRequest(PackedRequests.unpack(secondLegs.get(i)));
+          if (ticket != null) {
+            this.requestTracker.addSecondLeg(ticket, secondLeg, this.steps);
           }
         }
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * This method is used to get the index of an elevator in this building.
+   *
+   * @param elevator the elevator to look for.
+   * @return the index of the elevator, or -1 if it is not in this building.
+   */
+  int indexOf(Elevator elevator) {
+    int id = elevator.getElevatorId();
+    if (id < this.elevators.length && this.elevators[id] == elevator) {
+      return id;
+    }
+    for (int i = 0; i < this.elevators.length; ++i) {
+      if (this.elevators[i] == elevator) {
+        return i;
       }
     }
+    return -1;
+  }
+
+  /**
+   * This method is used to give a batch of queued requests to an elevator.
+   * The requests are removed from the queue the elevator takes requests from.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @param requests      the requests for the elevator.
+   */
+  void assignRequests(int elevatorIndex, List<Request> requests) {
+    Elevator elevator = this.elevators[elevatorIndex];
+    this.removeCalls(requests);
+    List<Request> parts = this.requestTracker.assign(elevatorIndex, requests);
+    elevator.processRequests(parts);
+    this.trackTransfers(elevatorIndex, parts);
+  }
+
+  /**
+   * This method is used to get how many requests can still be cancelled.
+   *
+   * @return the number of requests that have not boarded.
+   */
+  int getTrackedRequests() {
+    return this.requestTracker.size();
   }
 
   /**
-   * This method is used to get the requests for the specific elevator.
+   * This method is used to get the work left in the building, that is
+   * the queued requests, the second legs still to be queued at the sky
+   * lobbies, plus the outstanding stops of all elevators.
    *
-   * @param requests the request list for all elevators.
-   * @return the requests for a specific elevator.
+   * @return the pending work of the building.
    */
-  private List<Request> getRequests(List<Request> requests) {
-    List<Request> requestsForElevator = new LinkedList<>();
-    while (!requests.isEmpty() && requestsForElevator.size() < this.elevatorCapacity) {
-      requestsForElevator.add(requests.remove(0));
+  int getPendingWork() {
+    int pendingWork = this.getQueueSize();
+    for (PackedRequests secondLegs : this.transfers.values()) {
+      pendingWork += secondLegs.getPassengers();
+    }
+    for (PackedRequests secondLegs : this.transferLegs.values()) {
+      pendingWork += secondLegs.getPassengers();
+    }
+    for (Elevator elevator : this.elevators) {
+      for (boolean floorRequest : elevator.getFloorRequests()) {
+        if (floorRequest) {
+          ++pendingWork;
+        }
+      }
     }
-    return requestsForElevator;
+    return pendingWork;
   }
 
   @Override
   public void step() {
     if (this.systemStatus != ElevatorSystemStatus.outOfService) {
+      if (this.faultInjector != null) {
+        this.injectFaults();
+      }
+
+      if (this.systemStatus == ElevatorSystemStatus.running
+          && !this.scheduledRequests.isEmpty()) {
+        this.releaseScheduledRequests();
+      }
+
       if (this.systemStatus != ElevatorSystemStatus.stopping) {
+        this.expireRequests();
+        this.demandModel.update();
         this.distributeRequests();
+        if (this.hasPriorityCalls()) {
+          this.preemptIdleElevators();
+        }
+        this.applyTerminalWaits();
       }
 
-      for (Elevator elevator : elevators) {
-        elevator.step();
+      for (int i = 0; i < this.elevators.length; ++i) {
+        this.elevators[i].step();
+        if (!this.elevators[i].isDoorClosed()) {
+          this.requestTracker.board(i, this.elevators[i].getFloorRequests());
+        }
+      }
+
+      if (!this.transferElevators.isEmpty()) {
+        this.releaseTransfers();
+      }
+
+      this.healthMonitor.check(this, this.steps);
+
+      if (this.elevators.length > this.retiringFrom) {
+        this.removeRetiredElevators();
+      }
+
+      if (this.systemStatus == ElevatorSystemStatus.draining) {
+        this.drainElevators();
       }
 
+      this.steps++;
+
       if (this.systemStatus == ElevatorSystemStatus.stopping) {
         boolean checkElevatorsOnGroundFloor = true;
 
@@ -175,22 +1593,306 @@ public class Building implements BuildingInterface {
     }
   }
 
+  /**
+   * This method is used to inject the faults due by this step into the elevators.
+   */
+  private void injectFaults() {
+    for (FaultInjector.Fault fault : this.faultInjector.poll(this.steps)) {
+      if (fault.getElevatorIndex() < this.elevators.length) {
+        this.elevators[fault.getElevatorIndex()].injectFault(fault.getFault());
+        this.healthMonitor.recordFault(fault.getElevatorIndex(), fault.getFault(), this.steps);
+      }
+    }
+  }
+
   @Override
   public boolean startElevatorSystem() throws IllegalStateException {
     if (this.systemStatus != ElevatorSystemStatus.running) {
       if (this.systemStatus == ElevatorSystemStatus.stopping) {
         throw new IllegalStateException("Elevator cannot be started when it is stopping.");
+      } else if (this.systemStatus == ElevatorSystemStatus.draining) {
+        throw new IllegalStateException("Elevator cannot be started when it is draining.");
       } else {
-        for (Elevator elevator : elevators) {
-          elevator.start();
-        }
         this.systemStatus = ElevatorSystemStatus.running;
+        for (int i = 0; i < this.elevators.length; ++i) {
+          this.restoreElevator(i);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * This method is used to take one elevator out of service for maintenance
+   * while the rest of the building keeps running.
+   * Riders still waiting for the elevator are queued again for the other
+   * elevators.  Riders on board ride it down to the ground floor and are
+   * queued again from there.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @throws IllegalArgumentException if there is no elevator with the index.
+   * @throws IllegalStateException    if the building is not running or draining.
+   */
+  public void takeElevatorOutOfService(int elevatorIndex)
+      throws IllegalArgumentException, IllegalStateException {
+    this.checkElevatorIndex(elevatorIndex);
+    if (this.systemStatus != ElevatorSystemStatus.running
+        && this.systemStatus != ElevatorSystemStatus.draining) {
+      throw new IllegalStateException("An elevator can only be taken out of service "
+          + "while the elevator system is running.");
+    }
+    if (!this.inMaintenance[elevatorIndex]) {
+      this.releaseElevator(elevatorIndex);
+      this.inMaintenance[elevatorIndex] = true;
+    }
+  }
+
+  /**
+   * This method is used to take an elevator out of service and hand its work
+   * to the other elevators.
+   * Riders still waiting for the elevator are queued again.  Riders on board
+   * ride it down to the ground floor and are queued again from there.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @return the requests queued again.
+   */
+  private List<Request> releaseElevator(int elevatorIndex) {
+    Elevator elevator = this.elevators[elevatorIndex];
+    boolean[] floorRequests = elevator.getFloorRequests();
+    List<Request> waiting = new ArrayList<>();
+    Map<Request, Request> toGroundLegs = new IdentityHashMap<>();
+    for (Request request : elevator.getUnfinishedRequests()) {
+      PackedRequests secondLegs = this.transferLegs.remove(request);
+      this.transferElevators.remove(request);
+      if (floorRequests[request.getStartFloor()]) {
+        // The rider has not boarded, so the second legs wait on the first leg again.
+        if (secondLegs != null) {
+          this.transfers.computeIfAbsent(this.getTransferKey(request),
+              key -> new PackedRequests()).addAllFirst(secondLegs);
+        }
+        waiting.add(request);
+      } else {
+        PackedRequests fromGround = new PackedRequests();
+        if (secondLegs == null) {
+          secondLegs = new PackedRequests();
+          secondLegs.addLast(PackedRequests.pack(request.getStartFloor(), request.getEndFloor(),
+              request.getPriority(), request.getPassengers()));
+        }
+        for (int i = 0; i < secondLegs.size(); ++i) {
+          long secondLeg = secondLegs.get(i);
+          if (PackedRequests.getEndFloor(secondLeg) != 0) {
+            fromGround.addLast(PackedRequests.pack(0, PackedRequests.getEndFloor(secondLeg),
+                request.getPriority(), PackedRequests.getPassengers(secondLeg)));
+          }
+        }
+        Request toGround = null;
+        if (!fromGround.isEmpty()) {
+          toGround = new Request(request.getStartFloor(), 0, request.getPriority())
+              .withPassengers(request.getPassengers());
+          this.transferLegs.put(toGround, fromGround);
+          this.transferElevators.put(toGround, elevatorIndex);
+        }
+        toGroundLegs.put(request, toGround);
+      }
+    }
+
+    elevator.takeOutOfService();
+    for (Request request : waiting) {
+      // The rider keeps their place in the wait, so they are not counted as a new arrival.
+      this.getLaneOf(request).add(request);
+    }
+    this.requestTracker.release(elevatorIndex, waiting);
+    for (Map.Entry<Request, Request> entry : toGroundLegs.entrySet()) {
+      this.requestTracker.reroute(entry.getKey(), entry.getValue());
+    }
+    return waiting;
+  }
+
+  /**
+   * This method is used to hand the work of an elevator the health monitor
+   * found failed to the other elevators.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @return the requests queued again.
+   */
+  List<Request> failElevator(int elevatorIndex) {
+    return this.releaseElevator(elevatorIndex);
+  }
+
+  /**
+   * This method is used to start an elevator again if the building is running.
+   * Elevators in maintenance, failed or on their way out of the building stay
+   * out of service.
+   *
+   * @param elevatorIndex the index of the elevator.
+   */
+  void restoreElevator(int elevatorIndex) {
+    if (!this.inMaintenance[elevatorIndex] && elevatorIndex < this.retiringFrom
+        && !this.healthMonitor.isFailed(elevatorIndex)
+        && (this.systemStatus == ElevatorSystemStatus.running
+        || this.systemStatus == ElevatorSystemStatus.draining)) {
+      this.elevators[elevatorIndex].start();
+    }
+  }
+
+  /**
+   * This method is used to check if a request is still waiting in its lane.
+   *
+   * @param request the request to check.
+   * @return true if a rider of the request waits for an elevator.
+   */
+  boolean isWaiting(Request request) {
+    return this.getLaneOf(request).getRiders(request.getStartFloor(), request.getEndFloor()) > 0;
+  }
+
+  /**
+   * This method is used to get the lane of the priority of a request.
+   *
+   * @param request the request.
+   * @return the hall calls of the lane.
+   */
+  private HallCalls getLaneOf(Request request) {
+    return request.getPriority() == RequestPriority.normal
+        ? this.hallCalls : this.getLane(request.getPriority());
+  }
+
+  /**
+   * This method is used to return an elevator taken out of service for
+   * maintenance.  The elevator starts again if the building is running,
+   * otherwise it starts with the building.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @throws IllegalArgumentException if there is no elevator with the index.
+   */
+  public void returnElevatorToService(int elevatorIndex) throws IllegalArgumentException {
+    this.checkElevatorIndex(elevatorIndex);
+    if (this.inMaintenance[elevatorIndex]) {
+      this.inMaintenance[elevatorIndex] = false;
+      this.restoreElevator(elevatorIndex);
+    }
+  }
+
+  /**
+   * This method is used to check if an elevator is out of service for maintenance.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @return true if the elevator is out of service for maintenance.
+   * @throws IllegalArgumentException if there is no elevator with the index.
+   */
+  public boolean isInMaintenance(int elevatorIndex) throws IllegalArgumentException {
+    this.checkElevatorIndex(elevatorIndex);
+    return this.inMaintenance[elevatorIndex];
+  }
+
+  /**
+   * This method is used to check that an elevator index is in the building.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @throws IllegalArgumentException if there is no elevator with the index.
+   */
+  private void checkElevatorIndex(int elevatorIndex) throws IllegalArgumentException {
+    if (elevatorIndex < 0 || elevatorIndex >= this.elevators.length) {
+      throw new IllegalArgumentException("There is no elevator " + elevatorIndex + ".");
+    }
+  }
+
+  @Override
+  public void drainElevatorSystem() {
+    if (this.systemStatus == ElevatorSystemStatus.running) {
+      this.systemStatus = ElevatorSystemStatus.draining;
+      this.drainStartWork = this.getPendingWork();
+      this.drainElevators();
+    }
+  }
+
+  /**
+   * This method is used to send the elevators that have no more work to the
+   * ground floor while draining.  An elevator has no more work when it has no
+   * stops left, no waiting request it can serve and no second leg it could
+   * pick up at a sky lobby.  Once every elevator is on its way down the
+   * building is stopping.
+   */
+  private void drainElevators() {
+    boolean allOutOfService = true;
+    for (Elevator elevator : this.elevators) {
+      if (elevator.getElevatorStatus().isOutOfService()) {
+        continue;
+      }
+      boolean hasStops = false;
+      for (boolean floorRequest : elevator.getFloorRequests()) {
+        hasStops |= floorRequest;
+      }
+      if (hasStops || this.hasServableCall(elevator, true)
+          || this.hasServableCall(elevator, false) || this.hasServableSecondLeg(elevator)) {
+        allOutOfService = false;
+      } else {
+        elevator.takeOutOfService();
+      }
+    }
+    if (allOutOfService) {
+      this.systemStatus = ElevatorSystemStatus.stopping;
+    }
+  }
+
+  /**
+   * This method is used to check if an elevator serves a second leg that is
+   * still to be queued at a sky lobby.
+   *
+   * @param elevator the elevator.
+   * @return true if the elevator serves both floors of a pending second leg.
+   */
+  private boolean hasServableSecondLeg(Elevator elevator) {
+    for (PackedRequests secondLegs : this.transfers.values()) {
+      if (this.servesAny(elevator, secondLegs)) {
+        return true;
+      }
+    }
+    for (PackedRequests secondLegs : this.transferLegs.values()) {
+      if (this.servesAny(elevator, secondLegs)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * This method is used to check if an elevator serves both floors of one of
+   * the packed requests of a queue.
+   *
+   * @param elevator the elevator.
+   * @param requests the packed requests.
+   * @return true if the elevator serves one of the requests.
+   */
+  private boolean servesAny(Elevator elevator, PackedRequests requests) {
+    for (int i = 0; i < requests.size(); ++i) {
+      long packed = requests.get(i);
+      if (elevator.servesFloor(PackedRequests.getStartFloor(packed))
+          && elevator.servesFloor(PackedRequests.getEndFloor(packed))) {
         return true;
       }
     }
     return false;
   }
 
+  /**
+   * This method is used to get how much of the work waiting when the building
+   * started draining has been done.  The work is the waiting requests plus
+   * the stops of the elevators.
+   *
+   * @return the drain progress from 0 to 1, or 0 if the building is running.
+   */
+  public double getDrainProgress() {
+    if (this.systemStatus == ElevatorSystemStatus.running) {
+      return 0;
+    }
+    if (this.drainStartWork == 0) {
+      return 1;
+    }
+    double progress = 1 - (double) this.getPendingWork() / this.drainStartWork;
+    return Math.max(0, Math.min(1, progress));
+  }
+
   @Override
   public void stopElevatorSystem() {
     if (this.systemStatus != ElevatorSystemStatus.outOfService
@@ -199,9 +1901,36 @@ public class Building implements BuildingInterface {
         elevator.takeOutOfService();
       }
       this.systemStatus = ElevatorSystemStatus.stopping;
-      this.upRequests.clear();
-      this.downRequests.clear();
+      for (HallCalls lane : this.lanes) {
+        if (lane != null) {
+          lane.clear();
+        }
+      }
+      this.transfers.clear();
+      this.transferLegs.clear();
+      this.transferElevators.clear();
+      this.requestTracker.clear();
+    }
+  }
+
+  /**
+   * This method is used to get the waiting calls of all lanes in a direction,
+   * from the highest lane to the lowest, with a passenger for each waiting rider.
+   *
+   * @param up true for up requests, false for down requests.
+   * @return the waiting calls.
+   */
+  private List<Request> getQueuedRequests(boolean up) {
+    if (!this.hasPriorityCalls()) {
+      return this.hallCalls.getCalls(up);
+    }
+    List<Request> requests = new ArrayList<>();
+    for (HallCalls lane : this.lanes) {
+      if (lane != null) {
+        requests.addAll(lane.getCalls(up));
+      }
     }
+    return requests;
   }
 
   @Override
@@ -213,7 +1942,8 @@ public class Building implements BuildingInterface {
     }
 
     return new BuildingReport(this.numberOfFloors, this.numberOfElevators,
-        this.elevatorCapacity, elevatorReports, this.upRequests, this.downRequests,
+        this.elevatorCapacity, elevatorReports, this.getQueuedRequests(true),
+        this.getQueuedRequests(false),
         this.systemStatus);
   }
 }
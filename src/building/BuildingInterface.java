@@ -46,6 +46,26 @@ public interface BuildingInterface {
    */
   boolean addRequest(Request request) throws IllegalStateException;
 
+  /**
+   * This method is used to offer a request to the building without throwing.
+   * A producer that gets false back should slow down or retry later.
+   *
+   * @param request the request to be added to the building.
+   * @return true if the request was queued, false if it was invalid, the
+   *         elevator system is not running or the full queue turned it away.
+   */
+  boolean offer(Request request);
+
+  /**
+   * This method is used to cancel a request that has not boarded.
+   * The request leaves its call, and its floors stop being stops of the
+   * elevator it was given to unless another request needs them.
+   *
+   * @param requestId the id of the request.
+   * @return true if the request was cancelled, false if it is unknown or has boarded.
+   */
+  boolean cancelRequest(long requestId);
+
   /**
    * Moves all the elevators in the building by one floor.
    * The elevator is going to move by one floor in the direction it is currently moving.
@@ -71,6 +91,39 @@ public interface BuildingInterface {
    */
   void stopElevatorSystem();
 
+  /**
+   * This method is used to stop the elevator system once the waiting requests
+   * have been served.  New requests are rejected, and each elevator goes to
+   * the ground floor when it has no more work.
+   */
+  void drainElevatorSystem();
+
+  /**
+   * This method is used to change the number of elevators while the building runs.
+   * New elevators start with the building.  Removed elevators hand their work
+   * to the others and leave once they have reached the ground floor.
+   *
+   * @param numberOfElevators the new number of elevators.
+   */
+  void setNumberOfElevators(int numberOfElevators);
+
+  /**
+   * This method is used to change the capacity of the elevators while the building runs.
+   * Each elevator uses the new capacity from the next requests it takes.
+   *
+   * @param elevatorCapacity the new capacity of the elevators.
+   */
+  void setElevatorCapacity(int elevatorCapacity);
+
+  /**
+   * This method is used to change the number and the capacity of the elevators
+   * together.  Both are checked before either of them changes.
+   *
+   * @param numberOfElevators the new number of elevators.
+   * @param elevatorCapacity  the new capacity of the elevators.
+   */
+  void setElevators(int numberOfElevators, int elevatorCapacity);
+
   /**
    * This method is used to get the building report.
    *
@@ -84,4 +137,13 @@ public interface BuildingInterface {
    * @return the elevators in the building.
    */
   Elevator[] getElevators();
+
+  /**
+   * This method is used to fork the building.
+   * The fork is an independent copy of the elevators, the queued requests and
+   * the system status, so it can be stepped ahead without changing this building.
+   *
+   * @return an independent copy of the building.
+   */
+  BuildingInterface fork();
 }
@@ -2,12 +2,15 @@ package building;
 
 import building.enums.ElevatorSystemStatus;
 import elevator.ElevatorReport;
+import java.util.ArrayList;
 import java.util.List;
 import scanerzus.Request;
 
 
 /**
  * This is the reporting class for the building.
+ * The waiting requests are kept as the building coalesced them, one request per
+ * call with a passenger for each rider, and are given out one per rider.
  */
 public class BuildingReport {
   private final int numFloors;
@@ -25,8 +28,10 @@ public class BuildingReport {
    * @param numElevators     The number of elevators in the building.
    * @param elevatorCapacity The capacity of the elevators.
    * @param elevatorsReports The status of the elevators.
-   * @param upRequests       The up requests for the elevators.
-   * @param downRequests     The down requests for the elevators.
+   * @param upRequests       The up requests for the elevators, which may be
+   *                         coalesced into requests with several passengers.
+   * @param downRequests     The down requests for the elevators, which may be
+   *                         coalesced into requests with several passengers.
    * @param systemStatus     The status of the elevator system.
    */
   public BuildingReport(int numFloors,
@@ -84,19 +89,71 @@ public class BuildingReport {
   /**
    * This method is used to get the up requests for the elevators.
    *
-   * @return the requests for the elevators.
+   * @return the requests for the elevators, one per waiting rider.
    */
   public List<Request> getUpRequests() {
-    return this.upRequests;
+    return expand(this.upRequests);
   }
 
   /**
    * This method is used to get the down requests for the elevators.
    *
-   * @return the requests for the elevators.
+   * @return the requests for the elevators, one per waiting rider.
    */
   public List<Request> getDownRequests() {
-    return this.downRequests;
+    return expand(this.downRequests);
+  }
+
+  /**
+   * This method is used to get the number of riders waiting to go up.
+   *
+   * @return the number of up requests.
+   */
+  public int getNumUpRequests() {
+    return countPassengers(this.upRequests);
+  }
+
+  /**
+   * This method is used to get the number of riders waiting to go down.
+   *
+   * @return the number of down requests.
+   */
+  public int getNumDownRequests() {
+    return countPassengers(this.downRequests);
+  }
+
+  /**
+   * This method is used to get one request per rider of coalesced requests.
+   *
+   * @param requests the requests.
+   * @return the requests, with one request per passenger.
+   */
+  private static List<Request> expand(List<Request> requests) {
+    if (countPassengers(requests) == requests.size()) {
+      return requests;
+    }
+    List<Request> riders = new ArrayList<>();
+    for (Request request : requests) {
+      Request rider = request.withPassengers(1);
+      for (int i = 0; i < request.getPassengers(); ++i) {
+        riders.add(rider);
+      }
+    }
+    return riders;
+  }
+
+  /**
+   * This method is used to count the passengers of requests.
+   *
+   * @param requests the requests.
+   * @return the number of passengers.
+   */
+  private static int countPassengers(List<Request> requests) {
+    int passengers = 0;
+    for (Request request : requests) {
+      passengers += request.getPassengers();
+    }
+    return passengers;
   }
 
   /**
@@ -127,12 +184,12 @@ public class BuildingReport {
     }
 
     builder.append("Up Requests:\n");
-    for (Request request : upRequests) {
+    for (Request request : this.getUpRequests()) {
       builder.append(request.toString()).append("\n");
     }
 
     builder.append("Down Requests:\n");
-    for (Request request : downRequests) {
+    for (Request request : this.getDownRequests()) {
       builder.append(request.toString()).append("\n");
     }
 
@@ -0,0 +1,89 @@
+package building;
+
+import elevator.Elevator;
+
+/**
+ * This policy lets the waiting time at the top and bottom floor follow demand.
+ * An elevator leaves right away when requests it can serve wait at its other
+ * end and no other elevator is waiting there, keeps waiting while requests are
+ * expected or scheduled at its own end soon, leaves ahead of requests
+ * scheduled at its other end, and parks when the building is idle instead of
+ * running empty between the top and bottom floor.
+ */
+public class DemandAwareTerminalWait implements TerminalWaitPolicy {
+  protected final int holdTime;
+  private final int lookahead;
+
+  /**
+   * The constructor for the policy with a hold time and lookahead of 10 steps.
+   */
+  public DemandAwareTerminalWait() {
+    this(10, 10);
+  }
+
+  /**
+   * The constructor for the policy.
+   *
+   * @param holdTime  the steps an elevator keeps waiting when it holds or parks.
+   * @param lookahead the steps ahead the demand is predicted for.
+   * @throws IllegalArgumentException if the hold time or lookahead is less than 1.
+   */
+  public DemandAwareTerminalWait(int holdTime, int lookahead) throws IllegalArgumentException {
+    if (holdTime < 1 || lookahead < 1) {
+      throw new IllegalArgumentException("The hold time and lookahead must be greater than 0.");
+    }
+    this.holdTime = holdTime;
+    this.lookahead = lookahead;
+  }
+
+  @Override
+  public int getTerminalWait(Building building, Elevator elevator) {
+    boolean atBottom = elevator.getCurrentFloor() == elevator.getLowestFloor();
+    if (building.hasServableCall(elevator, atBottom)) {
+      return -1;
+    }
+    if (building.hasServableCall(elevator, !atBottom)
+        && !building.isOtherEndCovered(elevator, atBottom)) {
+      return 0;
+    }
+
+    // Requests scheduled in advance are known demand, so the elevator waits
+    // for them at its own end or heads to the other end ahead of them.
+    if (building.hasScheduledCall(elevator, atBottom, this.lookahead)) {
+      return this.holdTime;
+    }
+    if (building.hasScheduledCall(elevator, !atBottom, this.lookahead)
+        && !building.isOtherEndCovered(elevator, atBottom)) {
+      return 0;
+    }
+
+    return this.getIdleWait(building, elevator, atBottom);
+  }
+
+  /**
+   * This method is used to choose the wait of an elevator that has no queued
+   * requests to take at its own end and no need to leave for the other end.
+   *
+   * @param building the building the elevator belongs to.
+   * @param elevator the waiting elevator.
+   * @param atBottom true if the elevator waits at its bottom floor.
+   * @return the steps left to wait, 0 to leave now, or -1 to keep the current wait.
+   */
+  protected int getIdleWait(Building building, Elevator elevator, boolean atBottom) {
+    DemandModel demandModel = building.getDemandModel();
+    double expectedHere = 0;
+    for (int floor = 0; floor < building.getNumberOfFloors(); ++floor) {
+      if (elevator.servesFloor(floor)) {
+        expectedHere += atBottom ? demandModel.getUpRate(floor) : demandModel.getDownRate(floor);
+      }
+    }
+    if (expectedHere * this.lookahead >= 1) {
+      return this.holdTime;
+    }
+    if (building.hasNoCalls()
+        && demandModel.getTotalRate() * this.lookahead < 1) {
+      return this.holdTime;
+    }
+    return -1;
+  }
+}
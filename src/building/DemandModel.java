@@ -0,0 +1,235 @@
+package building;
+
+import scanerzus.Request;
+
+/**
+ * This class keeps a smoothed estimate of how many requests arrive per step
+ * at each floor, going up and going down.
+ * The estimate is an exponential moving average that is updated once per step.
+ * It also keeps a history of the requests per floor for each period of the
+ * day, so the demand of a period can be predicted from the days before.
+ */
+public class DemandModel {
+  private final double smoothing;
+  private final double[] upRates;
+  private final double[] downRates;
+  private final int[] upArrivals;
+  private final int[] downArrivals;
+  private final int periodLength;
+  private final double[][] upHistory;
+  private final double[][] downHistory;
+  private final boolean[] periodSeen;
+  private final int[] upPeriodArrivals;
+  private final int[] downPeriodArrivals;
+  private long steps;
+
+  /**
+   * The constructor for the demand model with a day of 24 periods of 60 steps.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param smoothing      the weight of the latest step, between 0 and 1.
+   * @throws IllegalArgumentException if the number of floors is less than 1
+   *                                  or the smoothing is not between 0 and 1.
+   */
+  public DemandModel(int numberOfFloors, double smoothing) throws IllegalArgumentException {
+    this(numberOfFloors, smoothing, 60, 24);
+  }
+
+  /**
+   * The constructor for the demand model.
+   * The smoothing is used both for the rates per step and for the history
+   * of a period from one day to the next.
+   *
+   * @param numberOfFloors  the number of floors in the building.
+   * @param smoothing       the weight of the latest step, between 0 and 1.
+   * @param periodLength    the number of steps in a period of the day.
+   * @param numberOfPeriods the number of periods in a day.
+   * @throws IllegalArgumentException if the number of floors, period length or
+   *                                  number of periods is less than 1 or the
+   *                                  smoothing is not between 0 and 1.
+   */
+  public DemandModel(int numberOfFloors, double smoothing, int periodLength,
+                     int numberOfPeriods) throws IllegalArgumentException {
+    if (numberOfFloors < 1) {
+      throw new IllegalArgumentException("The number of floors must be greater than 0.");
+    }
+    if (!(smoothing > 0 && smoothing <= 1)) {
+      throw new IllegalArgumentException("The smoothing must be greater than 0 and at most 1.");
+    }
+    if (periodLength < 1 || numberOfPeriods < 1) {
+      throw new IllegalArgumentException("The period length and number of periods "
+          + "must be greater than 0.");
+    }
+    this.smoothing = smoothing;
+    this.upRates = new double[numberOfFloors];
+    this.downRates = new double[numberOfFloors];
+    this.upArrivals = new int[numberOfFloors];
+    this.downArrivals = new int[numberOfFloors];
+    this.periodLength = periodLength;
+    this.upHistory = new double[numberOfPeriods][numberOfFloors];
+    this.downHistory = new double[numberOfPeriods][numberOfFloors];
+    this.periodSeen = new boolean[numberOfPeriods];
+    this.upPeriodArrivals = new int[numberOfFloors];
+    this.downPeriodArrivals = new int[numberOfFloors];
+  }
+
+  /**
+   * The copy constructor for the demand model.
+   *
+   * @param other the demand model to copy.
+   */
+  DemandModel(DemandModel other) {
+    this.smoothing = other.smoothing;
+    this.upRates = other.upRates.clone();
+    this.downRates = other.downRates.clone();
+    this.upArrivals = other.upArrivals.clone();
+    this.downArrivals = other.downArrivals.clone();
+    this.periodLength = other.periodLength;
+    this.upHistory = new double[other.upHistory.length][];
+    this.downHistory = new double[other.downHistory.length][];
+    for (int period = 0; period < other.upHistory.length; ++period) {
+      this.upHistory[period] = other.upHistory[period].clone();
+      this.downHistory[period] = other.downHistory[period].clone();
+    }
+    this.periodSeen = other.periodSeen.clone();
+    this.upPeriodArrivals = other.upPeriodArrivals.clone();
+    this.downPeriodArrivals = other.downPeriodArrivals.clone();
+    this.steps = other.steps;
+  }
+
+  /**
+   * This method is used to count the passengers of a request that arrived in the current step.
+   *
+   * @param request the request that arrived.
+   */
+  public void recordArrival(Request request) {
+    this.recordArrival(request.getStartFloor(), request.getStartFloor() < request.getEndFloor(),
+        request.getPassengers());
+  }
+
+  /**
+   * This method is used to count passengers that arrived at a floor in the current step.
+   *
+   * @param startFloor the floor the passengers arrived at.
+   * @param up         true if the passengers go up, false if they go down.
+   * @param passengers the number of passengers.
+   */
+  public void recordArrival(int startFloor, boolean up, int passengers) {
+    if (up) {
+      this.upArrivals[startFloor] += passengers;
+    } else {
+      this.downArrivals[startFloor] += passengers;
+    }
+  }
+
+  /**
+   * This method is used to fold the arrivals of the last step into the rates,
+   * and the arrivals of the last period into its history when the period ends.
+   */
+  public void update() {
+    for (int floor = 0; floor < this.upRates.length; ++floor) {
+      this.upRates[floor] += this.smoothing * (this.upArrivals[floor] - this.upRates[floor]);
+      this.downRates[floor] += this.smoothing * (this.downArrivals[floor] - this.downRates[floor]);
+      this.upPeriodArrivals[floor] += this.upArrivals[floor];
+      this.downPeriodArrivals[floor] += this.downArrivals[floor];
+      this.upArrivals[floor] = 0;
+      this.downArrivals[floor] = 0;
+    }
+
+    int period = this.getPeriod();
+    this.steps++;
+    if (this.steps % this.periodLength == 0) {
+      double weight = this.periodSeen[period] ? this.smoothing : 1;
+      for (int floor = 0; floor < this.upRates.length; ++floor) {
+        this.upHistory[period][floor] += weight
+            * (this.upPeriodArrivals[floor] - this.upHistory[period][floor]);
+        this.downHistory[period][floor] += weight
+            * (this.downPeriodArrivals[floor] - this.downHistory[period][floor]);
+        this.upPeriodArrivals[floor] = 0;
+        this.downPeriodArrivals[floor] = 0;
+      }
+      this.periodSeen[period] = true;
+    }
+  }
+
+  /**
+   * This method is used to get the number of floors the model keeps demand for.
+   *
+   * @return the number of floors.
+   */
+  public int getNumberOfFloors() {
+    return this.upRates.length;
+  }
+
+  /**
+   * This method is used to get the period of the day the building is in.
+   *
+   * @return the current period.
+   */
+  public int getPeriod() {
+    return (int) (this.steps / this.periodLength % this.periodSeen.length);
+  }
+
+  /**
+   * This method is used to predict the up requests at a floor in the current
+   * period.  Before a period has been seen the recent rate is used instead.
+   *
+   * @param floor the floor.
+   * @return the predicted up requests in the current period.
+   */
+  public double getPredictedUpDemand(int floor) {
+    int period = this.getPeriod();
+    if (this.periodSeen[period]) {
+      return this.upHistory[period][floor];
+    }
+    return this.upRates[floor] * this.periodLength;
+  }
+
+  /**
+   * This method is used to predict the down requests at a floor in the current
+   * period.  Before a period has been seen the recent rate is used instead.
+   *
+   * @param floor the floor.
+   * @return the predicted down requests in the current period.
+   */
+  public double getPredictedDownDemand(int floor) {
+    int period = this.getPeriod();
+    if (this.periodSeen[period]) {
+      return this.downHistory[period][floor];
+    }
+    return this.downRates[floor] * this.periodLength;
+  }
+
+  /**
+   * This method is used to get the expected up requests per step at a floor.
+   *
+   * @param floor the floor.
+   * @return the expected up requests per step.
+   */
+  public double getUpRate(int floor) {
+    return this.upRates[floor];
+  }
+
+  /**
+   * This method is used to get the expected down requests per step at a floor.
+   *
+   * @param floor the floor.
+   * @return the expected down requests per step.
+   */
+  public double getDownRate(int floor) {
+    return this.downRates[floor];
+  }
+
+  /**
+   * This method is used to get the expected requests per step in the whole building.
+   *
+   * @return the expected requests per step.
+   */
+  public double getTotalRate() {
+    double total = 0;
+    for (int floor = 0; floor < this.upRates.length; ++floor) {
+      total += this.upRates[floor] + this.downRates[floor];
+    }
+    return total;
+  }
+}
@@ -0,0 +1,95 @@
+package building;
+
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This dispatcher groups requests going to nearby floors in the same elevator.
+ * The floors are split into bands, and an elevator takes the oldest request
+ * it can serve together with the other requests ending in the same band.
+ * Requests from other bands are only added when the elevator already stops
+ * at both of their floors, so each elevator makes fewer stops per trip.
+ */
+public class DestinationDispatcher implements Dispatcher {
+  private final int bandSize;
+
+  /**
+   * The constructor for the destination dispatcher.  The floors are split
+   * into one band per elevator.
+   */
+  public DestinationDispatcher() {
+    this.bandSize = 0;
+  }
+
+  /**
+   * The constructor for the destination dispatcher.
+   *
+   * @param bandSize the number of floors in a destination band.
+   * @throws IllegalArgumentException if the band size is less than 1.
+   */
+  public DestinationDispatcher(int bandSize) throws IllegalArgumentException {
+    if (bandSize < 1) {
+      throw new IllegalArgumentException("The band size must be greater than 0.");
+    }
+    this.bandSize = bandSize;
+  }
+
+  /**
+   * This method is used to get the number of floors in a destination band
+   * of a building.
+   *
+   * @param building the building.
+   * @return the band size.
+   */
+  public int getBandSize(Building building) {
+    if (this.bandSize > 0) {
+      return this.bandSize;
+    }
+    int elevators = building.getElevators().length;
+    return (building.getNumberOfFloors() + elevators - 1) / elevators;
+  }
+
+  @Override
+  public List<Request> selectRequests(Building building, Elevator elevator,
+                                      List<Request> requests) {
+    List<Request> requestsForElevator = new ArrayList<>();
+    RouteLoad routeLoad = building.newRouteLoad(elevator);
+    boolean[] selected = new boolean[requests.size()];
+    boolean[] stops = new boolean[building.getNumberOfFloors()];
+    int size = this.getBandSize(building);
+    int band = -1;
+
+    for (int i = 0; i < requests.size() && !routeLoad.isFull(); ++i) {
+      Request request = requests.get(i);
+      if (!elevator.servesFloor(request.getStartFloor())
+          || !elevator.servesFloor(request.getEndFloor())) {
+        continue;
+      }
+      if (band < 0) {
+        band = request.getEndFloor() / size;
+      }
+      Request part = request.getEndFloor() / size == band ? routeLoad.take(request) : null;
+      if (part != null) {
+        requestsForElevator.add(part);
+        selected[i] = true;
+        stops[request.getStartFloor()] = true;
+        stops[request.getEndFloor()] = true;
+      }
+    }
+
+    for (int i = 0; i < requests.size() && !routeLoad.isFull(); ++i) {
+      Request request = requests.get(i);
+      if (!selected[i] && stops[request.getStartFloor()] && stops[request.getEndFloor()]
+          && elevator.servesFloor(request.getStartFloor())
+          && elevator.servesFloor(request.getEndFloor())) {
+        Request part = routeLoad.take(request);
+        if (part != null) {
+          requestsForElevator.add(part);
+        }
+      }
+    }
+    return requestsForElevator;
+  }
+}
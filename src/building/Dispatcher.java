@@ -0,0 +1,24 @@
+package building;
+
+import elevator.Elevator;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This interface is used to choose the requests an elevator takes on its next run.
+ */
+public interface Dispatcher {
+
+  /**
+   * This method is used to select the requests for an elevator that is taking
+   * requests at the bottom or top floor.
+   * The building removes the selected requests from its hall calls.
+   *
+   * @param building the building the elevator belongs to.
+   * @param elevator the elevator taking requests.
+   * @param requests the waiting up or down requests the elevator can serve,
+   *                 oldest call first.
+   * @return the requests for the elevator.
+   */
+  List<Request> selectRequests(Building building, Elevator elevator, List<Request> requests);
+}
@@ -0,0 +1,321 @@
+package building;
+
+import elevator.DoorDwell;
+import elevator.ElevatorSpec;
+import java.util.Arrays;
+
+/**
+ * This class represents a bank of elevators that serve the same floors.
+ * A building can be split into banks, for example a low-rise bank, a high-rise
+ * bank with an express run from the lobby, or banks for odd and even floors.
+ * Floors served by more than one bank are sky lobbies where riders transfer.
+ * A bank can also give its elevators a spec, such as a freight or express car;
+ * otherwise its elevators are standard cars with the capacity of the building.
+ * A bank can give its elevators a door dwell that keeps the door open longer
+ * when more riders get on and off; otherwise the door stays open for a fixed time.
+ */
+public class ElevatorBank {
+  private final String name;
+  private final int numberOfElevators;
+  private final boolean[] servedFloors;
+  private final int expressSpeed;
+  private final ElevatorSpec spec;
+  private final DoorDwell doorDwell;
+
+  /**
+   * The constructor for the elevator bank.
+   *
+   * @param name              the name of the bank.
+   * @param numberOfElevators the number of elevators in the bank.
+   * @param servedFloors      the floors the bank stops at, one entry per floor,
+   *                          or null if the bank serves every floor.
+   * @param expressSpeed      the floors per step while passing floors the bank
+   *                          does not serve.
+   * @throws IllegalArgumentException if the name is null, there are no elevators,
+   *                                  fewer than two floors are served
+   *                                  or the express speed is less than 1.
+   */
+  public ElevatorBank(String name, int numberOfElevators, boolean[] servedFloors,
+                      int expressSpeed) throws IllegalArgumentException {
+    this(name, numberOfElevators, servedFloors, expressSpeed, null, null);
+  }
+
+  /**
+   * The constructor for an elevator bank whose elevators are built from a spec.
+   * The bank serves the floors of the spec.
+   *
+   * @param name              the name of the bank.
+   * @param numberOfElevators the number of elevators in the bank.
+   * @param spec              the type of the elevators in the bank.
+   * @throws IllegalArgumentException if the name or spec is null, there are no
+   *                                  elevators or fewer than two floors are served.
+   */
+  public ElevatorBank(String name, int numberOfElevators, ElevatorSpec spec)
+      throws IllegalArgumentException {
+    this(name, numberOfElevators,
+        spec == null ? null : spec.getServedFloors(),
+        spec == null ? 1 : spec.getExpressSpeed(),
+        checkSpec(spec), null);
+  }
+
+  /**
+   * The constructor that checks and sets every field of the bank.
+   *
+   * @param name              the name of the bank.
+   * @param numberOfElevators the number of elevators in the bank.
+   * @param servedFloors      the floors the bank stops at, or null for every floor.
+   * @param expressSpeed      the floors per step on an express run.
+   * @param spec              the type of the elevators, or null for standard cars.
+   * @param doorDwell         the door dwell of standard cars, or null for a fixed dwell.
+   * @throws IllegalArgumentException if any of the parameters is out of range.
+   */
+  private ElevatorBank(String name, int numberOfElevators, boolean[] servedFloors,
+                       int expressSpeed, ElevatorSpec spec, DoorDwell doorDwell)
+      throws IllegalArgumentException {
+    if (name == null) {
+      throw new IllegalArgumentException("The name of the bank cannot be null.");
+    } else if (numberOfElevators < 1) {
+      throw new IllegalArgumentException("The number of "
+          + "elevators in a bank must be greater than 0.");
+    } else if (expressSpeed < 1) {
+      throw new IllegalArgumentException("The express speed must be greater than 0.");
+    }
+    if (servedFloors != null) {
+      int served = 0;
+      for (boolean floor : servedFloors) {
+        if (floor) {
+          ++served;
+        }
+      }
+      if (served < 2) {
+        throw new IllegalArgumentException("A bank must serve at least two floors.");
+      }
+    }
+    this.name = name;
+    this.numberOfElevators = numberOfElevators;
+    this.servedFloors = servedFloors == null ? null : servedFloors.clone();
+    this.expressSpeed = expressSpeed;
+    this.spec = spec == null ? null : spec.withServedFloors(servedFloors, expressSpeed);
+    this.doorDwell = doorDwell;
+  }
+
+  /**
+   * This method is used to check that a spec is not null.
+   *
+   * @param spec the spec to check.
+   * @return the spec.
+   * @throws IllegalArgumentException if the spec is null.
+   */
+  private static ElevatorSpec checkSpec(ElevatorSpec spec) throws IllegalArgumentException {
+    if (spec == null) {
+      throw new IllegalArgumentException("The spec of the bank cannot be null.");
+    }
+    return spec;
+  }
+
+  /**
+   * This method is used to get a copy of this bank whose elevators take their
+   * occupancy, speed, acceleration and door dwell from a spec.
+   * The bank keeps its own served floors and express speed.
+   *
+   * @param spec the type of the elevators in the bank.
+   * @return the bank with the spec.
+   * @throws IllegalArgumentException if the spec is null.
+   */
+  public ElevatorBank withSpec(ElevatorSpec spec) throws IllegalArgumentException {
+    return new ElevatorBank(this.name, this.numberOfElevators, this.servedFloors,
+        this.expressSpeed, checkSpec(spec), null);
+  }
+
+  /**
+   * This method is used to get a copy of this bank whose elevators keep the
+   * door open longer when more riders get on and off.  A bank with a spec
+   * gets the door dwell in its spec.
+   *
+   * @param doorDwell the door dwell of the elevators in the bank.
+   * @return the bank with the door dwell.
+   * @throws IllegalArgumentException if the door dwell is null.
+   */
+  public ElevatorBank withDoorDwell(DoorDwell doorDwell) throws IllegalArgumentException {
+    if (doorDwell == null) {
+      throw new IllegalArgumentException("The door dwell of the bank cannot be null.");
+    } else if (this.spec != null) {
+      return this.withSpec(this.spec.withDoorDwell(doorDwell));
+    }
+    return new ElevatorBank(this.name, this.numberOfElevators, this.servedFloors,
+        this.expressSpeed, null, doorDwell);
+  }
+
+  /**
+   * This method is used to get a copy of this bank with another number of elevators.
+   *
+   * @param numberOfElevators the number of elevators in the bank.
+   * @return the bank with the number of elevators.
+   * @throws IllegalArgumentException if the number of elevators is less than 1.
+   */
+  public ElevatorBank withElevators(int numberOfElevators) throws IllegalArgumentException {
+    return new ElevatorBank(this.name, numberOfElevators, this.servedFloors,
+        this.expressSpeed, this.spec, this.doorDwell);
+  }
+
+  /**
+   * This method is used to create a bank that serves a range of floors.
+   *
+   * @param name              the name of the bank.
+   * @param numberOfElevators the number of elevators in the bank.
+   * @param numberOfFloors    the number of floors in the building.
+   * @param lowestFloor       the lowest floor served.
+   * @param highestFloor      the highest floor served.
+   * @return the bank.
+   * @throws IllegalArgumentException if the range is not inside the building.
+   */
+  public static ElevatorBank range(String name, int numberOfElevators, int numberOfFloors,
+                                   int lowestFloor, int highestFloor)
+      throws IllegalArgumentException {
+    boolean[] servedFloors = newFloors(numberOfFloors, lowestFloor, highestFloor);
+    Arrays.fill(servedFloors, lowestFloor, highestFloor + 1, true);
+    return new ElevatorBank(name, numberOfElevators, servedFloors, 1);
+  }
+
+  /**
+   * This method is used to create a bank that serves the ground floor and
+   * a range of upper floors, with an express run in between.
+   *
+   * @param name              the name of the bank.
+   * @param numberOfElevators the number of elevators in the bank.
+   * @param numberOfFloors    the number of floors in the building.
+   * @param lowestFloor       the lowest upper floor served.
+   * @param highestFloor      the highest floor served.
+   * @param expressSpeed      the floors per step on the express run.
+   * @return the bank.
+   * @throws IllegalArgumentException if the range is not inside the building.
+   */
+  public static ElevatorBank express(String name, int numberOfElevators, int numberOfFloors,
+                                     int lowestFloor, int highestFloor, int expressSpeed)
+      throws IllegalArgumentException {
+    boolean[] servedFloors = newFloors(numberOfFloors, lowestFloor, highestFloor);
+    servedFloors[0] = true;
+    Arrays.fill(servedFloors, lowestFloor, highestFloor + 1, true);
+    return new ElevatorBank(name, numberOfElevators, servedFloors, expressSpeed);
+  }
+
+  /**
+   * This method is used to create a bank that serves the ground floor and the odd floors.
+   *
+   * @param name              the name of the bank.
+   * @param numberOfElevators the number of elevators in the bank.
+   * @param numberOfFloors    the number of floors in the building.
+   * @return the bank.
+   */
+  public static ElevatorBank oddFloors(String name, int numberOfElevators, int numberOfFloors) {
+    boolean[] servedFloors = newFloors(numberOfFloors, 0, numberOfFloors - 1);
+    servedFloors[0] = true;
+    for (int floor = 1; floor < numberOfFloors; floor += 2) {
+      servedFloors[floor] = true;
+    }
+    return new ElevatorBank(name, numberOfElevators, servedFloors, 1);
+  }
+
+  /**
+   * This method is used to create a bank that serves the even floors.
+   *
+   * @param name              the name of the bank.
+   * @param numberOfElevators the number of elevators in the bank.
+   * @param numberOfFloors    the number of floors in the building.
+   * @return the bank.
+   */
+  public static ElevatorBank evenFloors(String name, int numberOfElevators, int numberOfFloors) {
+    boolean[] servedFloors = newFloors(numberOfFloors, 0, numberOfFloors - 1);
+    for (int floor = 0; floor < numberOfFloors; floor += 2) {
+      servedFloors[floor] = true;
+    }
+    return new ElevatorBank(name, numberOfElevators, servedFloors, 1);
+  }
+
+  /**
+   * This method is used to check a floor range and create the served floors for it.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param lowestFloor    the lowest floor of the range.
+   * @param highestFloor   the highest floor of the range.
+   * @return a served floors array with no floor served yet.
+   * @throws IllegalArgumentException if the range is not inside the building.
+   */
+  private static boolean[] newFloors(int numberOfFloors, int lowestFloor, int highestFloor)
+      throws IllegalArgumentException {
+    if (lowestFloor < 0 || highestFloor >= numberOfFloors || lowestFloor >= highestFloor) {
+      throw new IllegalArgumentException("The floors of a bank must be between 0 and "
+          + (numberOfFloors - 1));
+    }
+    return new boolean[numberOfFloors];
+  }
+
+  /**
+   * This method is used to get the name of the bank.
+   *
+   * @return the name of the bank.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * This method is used to get the number of elevators in the bank.
+   *
+   * @return the number of elevators in the bank.
+   */
+  public int getNumberOfElevators() {
+    return this.numberOfElevators;
+  }
+
+  /**
+   * This method is used to get the floors the bank stops at.
+   *
+   * @return the served floors, or null if the bank serves every floor.
+   */
+  public boolean[] getServedFloors() {
+    return this.servedFloors == null ? null : this.servedFloors.clone();
+  }
+
+  /**
+   * This method is used to get the floors per step on an express run.
+   *
+   * @return the express speed of the bank.
+   */
+  public int getExpressSpeed() {
+    return this.expressSpeed;
+  }
+
+  /**
+   * This method is used to get the type of the elevators in the bank.
+   * The spec has the served floors and express speed of the bank.
+   *
+   * @return the spec of the bank, or null for standard cars.
+   */
+  public ElevatorSpec getSpec() {
+    return this.spec;
+  }
+
+  /**
+   * This method is used to get the door dwell of the elevators in the bank.
+   *
+   * @return the door dwell of the spec or of the bank, or null if standard
+   *         cars keep the door open for a fixed time.
+   */
+  public DoorDwell getDoorDwell() {
+    return this.spec == null ? this.doorDwell : this.spec.getDoorDwell();
+  }
+
+  /**
+   * This method is used to check if the bank stops at a floor.
+   *
+   * @param floor the floor to check.
+   * @return true if the bank serves the floor, false otherwise.
+   */
+  public boolean servesFloor(int floor) {
+    if (this.servedFloors == null) {
+      return floor >= 0;
+    }
+    return floor >= 0 && floor < this.servedFloors.length && this.servedFloors[floor];
+  }
+}
@@ -0,0 +1,107 @@
+package building;
+
+import building.enums.ElevatorFault;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is used to schedule faults of the elevators of a building.
+ * The building injects the faults scheduled for a step at the start of that step.
+ * Scheduling ElevatorFault.none repairs an elevator.
+ */
+public class FaultInjector {
+  private final TreeMap<Integer, List<Fault>> faults = new TreeMap<>();
+
+  /**
+   * A fault scheduled for an elevator.
+   */
+  public static final class Fault {
+    private final int elevatorIndex;
+    private final ElevatorFault fault;
+
+    private Fault(int elevatorIndex, ElevatorFault fault) {
+      this.elevatorIndex = elevatorIndex;
+      this.fault = fault;
+    }
+
+    /**
+     * This method is used to get the index of the elevator with the fault.
+     *
+     * @return the index of the elevator.
+     */
+    public int getElevatorIndex() {
+      return this.elevatorIndex;
+    }
+
+    /**
+     * This method is used to get the fault of the elevator.
+     *
+     * @return the fault.
+     */
+    public ElevatorFault getFault() {
+      return this.fault;
+    }
+  }
+
+  /**
+   * The constructor for an injector without faults.
+   */
+  public FaultInjector() {
+    // The faults are added with schedule.
+  }
+
+  /**
+   * The copy constructor for the injector, used when a building is forked.
+   *
+   * @param other the injector to copy.
+   */
+  public FaultInjector(FaultInjector other) {
+    for (Map.Entry<Integer, List<Fault>> entry : other.faults.entrySet()) {
+      this.faults.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+  }
+
+  /**
+   * This method is used to schedule a fault.
+   *
+   * @param step          the step of the building to inject the fault at.
+   * @param elevatorIndex the index of the elevator.
+   * @param fault         the fault, or ElevatorFault.none to repair the elevator.
+   * @throws IllegalArgumentException if the step or index is negative or the fault is null.
+   */
+  public void schedule(int step, int elevatorIndex, ElevatorFault fault)
+      throws IllegalArgumentException {
+    if (step < 0 || elevatorIndex < 0) {
+      throw new IllegalArgumentException("The step and elevator index cannot be negative.");
+    } else if (fault == null) {
+      throw new IllegalArgumentException("The fault cannot be null.");
+    }
+    this.faults.computeIfAbsent(step, key -> new ArrayList<>())
+        .add(new Fault(elevatorIndex, fault));
+  }
+
+  /**
+   * This method is used to take the faults due by a step, in the order they are due.
+   *
+   * @param step the step of the building.
+   * @return the faults due, removed from the injector.
+   */
+  public List<Fault> poll(int step) {
+    List<Fault> due = new ArrayList<>();
+    while (!this.faults.isEmpty() && this.faults.firstKey() <= step) {
+      due.addAll(this.faults.pollFirstEntry().getValue());
+    }
+    return due;
+  }
+
+  /**
+   * This method is used to check if there are faults left to inject.
+   *
+   * @return true if no fault is scheduled.
+   */
+  public boolean isEmpty() {
+    return this.faults.isEmpty();
+  }
+}
@@ -0,0 +1,34 @@
+package building;
+
+import elevator.Elevator;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This dispatcher gives an elevator the oldest requests in the queue that
+ * it can serve and that fit in its capacity.  A group that does not fit
+ * whole is split, and the rest of it waits for another elevator.
+ */
+public class FifoDispatcher implements Dispatcher {
+
+  @Override
+  public List<Request> selectRequests(Building building, Elevator elevator,
+                                      List<Request> requests) {
+    List<Request> requestsForElevator = new LinkedList<>();
+    RouteLoad routeLoad = building.newRouteLoad(elevator);
+    Iterator<Request> iterator = requests.iterator();
+    while (iterator.hasNext() && !routeLoad.isFull()) {
+      Request request = iterator.next();
+      if (elevator.servesFloor(request.getStartFloor())
+          && elevator.servesFloor(request.getEndFloor())) {
+        Request part = routeLoad.take(request);
+        if (part != null) {
+          requestsForElevator.add(part);
+        }
+      }
+    }
+    return requestsForElevator;
+  }
+}
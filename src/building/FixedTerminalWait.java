@@ -0,0 +1,14 @@
+package building;
+
+import elevator.Elevator;
+
+/**
+ * This policy keeps the fixed wait of the elevators at the top and bottom floor.
+ */
+public class FixedTerminalWait implements TerminalWaitPolicy {
+
+  @Override
+  public int getTerminalWait(Building building, Elevator elevator) {
+    return -1;
+  }
+}
@@ -0,0 +1,810 @@
+package building;
+
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import scanerzus.Request;
+import scanerzus.RequestPriority;
+
+/**
+ * This class holds the hall calls of a building that are waiting for an elevator.
+ * <p></p>
+ * A call is the pair of a start and an end floor.  Each floor has an up and a
+ * down call bit, and the riders of each call are kept as a count, so pressing
+ * the same button again only adds one to the count of an existing call.
+ * Each call keeps the arrival steps of its riders in groups of riders that
+ * arrived in the same step, oldest first, so riders that join a waiting call
+ * keep their own arrival step and riders leaving the call take the oldest first.
+ * The memory used grows with the number of floors and with the number of
+ * different steps the waiting riders arrived at, not with the number of riders.
+ * The calls are kept in the order of their oldest riders, so the oldest call
+ * can still be served first, and in a bucket for their start floor and
+ * direction, so the calls starting between two floors can be found without
+ * looking at the other calls.
+ * The calls of each priority lane are kept in their own hall calls.
+ */
+public class HallCalls {
+  private static final int NONE = -1;
+  private final int numberOfFloors;
+  private final RequestPriority priority;
+  private final BitSet upCalls;
+  private final BitSet downCalls;
+  private final int[] upRiders;
+  private final int[] downRiders;
+  private final int[] riders;
+  private final int[] arrivals;
+  private final Stamps[] stamps;
+  private final int[] next;
+  private final int[] previous;
+  private final int[] bucketHead;
+  private final int[] bucketTail;
+  private final int[] bucketNext;
+  private final int[] bucketPrevious;
+  private int upHead = NONE;
+  private int upTail = NONE;
+  private int downHead = NONE;
+  private int downTail = NONE;
+  private int upSize;
+  private int downSize;
+
+  /**
+   * The arrival steps of the riders of a call, as groups of riders that
+   * arrived in the same step, oldest first.  The groups are kept in a ring
+   * that is reused while the call comes and goes.
+   */
+  private static final class Stamps {
+    private int[] steps = new int[2];
+    private int[] counts = new int[2];
+    private int head;
+    private int size;
+
+    private Stamps() {
+      // The groups are added with add.
+    }
+
+    private Stamps(Stamps other) {
+      this.steps = other.steps.clone();
+      this.counts = other.counts.clone();
+      this.head = other.head;
+      this.size = other.size;
+    }
+
+    private int index(int group) {
+      return (this.head + group) % this.steps.length;
+    }
+
+    private int getOldestStep() {
+      return this.steps[this.head];
+    }
+
+    /**
+     * Adds riders in the group of their arrival step, keeping the groups oldest first.
+     */
+    private void add(int step, int count) {
+      int group = this.size;
+      while (group > 0 && this.steps[this.index(group - 1)] > step) {
+        --group;
+      }
+      if (group > 0 && this.steps[this.index(group - 1)] == step) {
+        this.counts[this.index(group - 1)] += count;
+        return;
+      }
+      if (this.size == this.steps.length) {
+        int[] steps = new int[this.size * 2];
+        int[] counts = new int[this.size * 2];
+        for (int i = 0; i < this.size; ++i) {
+          steps[i] = this.steps[this.index(i)];
+          counts[i] = this.counts[this.index(i)];
+        }
+        this.steps = steps;
+        this.counts = counts;
+        this.head = 0;
+      }
+      for (int i = this.size; i > group; --i) {
+        this.steps[this.index(i)] = this.steps[this.index(i - 1)];
+        this.counts[this.index(i)] = this.counts[this.index(i - 1)];
+      }
+      this.steps[this.index(group)] = step;
+      this.counts[this.index(group)] = count;
+      ++this.size;
+    }
+
+    /**
+     * Removes riders from the group of an arrival step first, then the oldest riders.
+     */
+    private void remove(int step, int count) {
+      for (int group = 0; group < this.size && count > 0; ++group) {
+        if (this.steps[this.index(group)] == step) {
+          int taken = Math.min(count, this.counts[this.index(group)]);
+          this.counts[this.index(group)] -= taken;
+          count -= taken;
+          if (this.counts[this.index(group)] == 0) {
+            this.removeGroup(group);
+          }
+          break;
+        }
+      }
+      while (count > 0 && this.size > 0) {
+        int taken = Math.min(count, this.counts[this.head]);
+        this.counts[this.head] -= taken;
+        count -= taken;
+        if (this.counts[this.head] == 0) {
+          this.removeGroup(0);
+        }
+      }
+    }
+
+    private void clear() {
+      this.head = 0;
+      this.size = 0;
+    }
+
+    private void removeGroup(int group) {
+      if (group == 0) {
+        // The oldest group leaves most often, so the ring only moves its head.
+        this.head = (this.head + 1) % this.steps.length;
+      } else {
+        for (int i = group; i < this.size - 1; ++i) {
+          this.steps[this.index(i)] = this.steps[this.index(i + 1)];
+          this.counts[this.index(i)] = this.counts[this.index(i + 1)];
+        }
+      }
+      --this.size;
+      if (this.size == 0) {
+        this.head = 0;
+      }
+    }
+  }
+
+  /**
+   * The constructor for the hall calls of the normal lane.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @throws IllegalArgumentException if the number of floors is less than 1.
+   */
+  public HallCalls(int numberOfFloors) throws IllegalArgumentException {
+    this(numberOfFloors, RequestPriority.normal);
+  }
+
+  /**
+   * The constructor for the hall calls of a priority lane.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param priority       the priority lane of the calls.
+   * @throws IllegalArgumentException if the number of floors is less than 1
+   *                                  or the priority is null.
+   */
+  public HallCalls(int numberOfFloors, RequestPriority priority)
+      throws IllegalArgumentException {
+    if (numberOfFloors < 1) {
+      throw new IllegalArgumentException("The number of floors must be greater than 0.");
+    }
+    if (priority == null) {
+      throw new IllegalArgumentException("Priority cannot be null.");
+    }
+    this.numberOfFloors = numberOfFloors;
+    this.priority = priority;
+    this.upCalls = new BitSet(numberOfFloors);
+    this.downCalls = new BitSet(numberOfFloors);
+    this.upRiders = new int[numberOfFloors];
+    this.downRiders = new int[numberOfFloors];
+    this.riders = new int[numberOfFloors * numberOfFloors];
+    this.arrivals = new int[numberOfFloors * numberOfFloors];
+    this.stamps = new Stamps[numberOfFloors * numberOfFloors];
+    this.next = new int[numberOfFloors * numberOfFloors];
+    this.previous = new int[numberOfFloors * numberOfFloors];
+    this.bucketHead = new int[2 * numberOfFloors];
+    this.bucketTail = new int[2 * numberOfFloors];
+    this.bucketNext = new int[numberOfFloors * numberOfFloors];
+    this.bucketPrevious = new int[numberOfFloors * numberOfFloors];
+    Arrays.fill(this.bucketHead, NONE);
+    Arrays.fill(this.bucketTail, NONE);
+  }
+
+  /**
+   * The copy constructor for the hall calls.
+   *
+   * @param other the hall calls to copy.
+   */
+  HallCalls(HallCalls other) {
+    this.numberOfFloors = other.numberOfFloors;
+    this.priority = other.priority;
+    this.upCalls = (BitSet) other.upCalls.clone();
+    this.downCalls = (BitSet) other.downCalls.clone();
+    this.upRiders = other.upRiders.clone();
+    this.downRiders = other.downRiders.clone();
+    this.riders = other.riders.clone();
+    this.arrivals = other.arrivals.clone();
+    this.stamps = new Stamps[other.stamps.length];
+    for (int call = 0; call < other.stamps.length; ++call) {
+      if (other.stamps[call] != null) {
+        this.stamps[call] = new Stamps(other.stamps[call]);
+      }
+    }
+    this.next = other.next.clone();
+    this.previous = other.previous.clone();
+    this.bucketHead = other.bucketHead.clone();
+    this.bucketTail = other.bucketTail.clone();
+    this.bucketNext = other.bucketNext.clone();
+    this.bucketPrevious = other.bucketPrevious.clone();
+    this.upHead = other.upHead;
+    this.upTail = other.upTail;
+    this.downHead = other.downHead;
+    this.downTail = other.downTail;
+    this.upSize = other.upSize;
+    this.downSize = other.downSize;
+  }
+
+  /**
+   * This method is used to add the riders of a request to its call, one for
+   * each passenger, so the riders of a group can leave on different elevators.
+   * The riders keep the arrival step of the request, even when they join a
+   * call that is already waiting.
+   *
+   * @param request the request to add.
+   * @throws IllegalArgumentException if the floors of the request are not in
+   *                                  the building or are the same.
+   */
+  public void add(Request request) throws IllegalArgumentException {
+    this.add(request.getStartFloor(), request.getEndFloor(), request.getArrivalStep(),
+        request.getPassengers());
+  }
+
+  /**
+   * This method is used to add riders to a call without a request object.
+   *
+   * @param startFloor  the start floor of the call.
+   * @param endFloor    the end floor of the call.
+   * @param arrivalStep the step the riders arrived at.
+   * @param passengers  the number of riders.
+   * @throws IllegalArgumentException if the floors are not in the building or are the same.
+   */
+  public void add(int startFloor, int endFloor, int arrivalStep, int passengers)
+      throws IllegalArgumentException {
+    int call = this.getCall(startFloor, endFloor);
+    boolean up = startFloor < endFloor;
+    if (this.stamps[call] == null) {
+      this.stamps[call] = new Stamps();
+    }
+    this.stamps[call].add(arrivalStep, passengers);
+    if (this.riders[call] == 0) {
+      this.arrivals[call] = arrivalStep;
+      this.link(call, up);
+    } else if (arrivalStep < this.arrivals[call]) {
+      this.arrivals[call] = arrivalStep;
+      this.unlinkOrder(call, up);
+      this.linkOrder(call, up);
+    }
+    this.riders[call] += passengers;
+    if (up) {
+      this.upRiders[startFloor] += passengers;
+      this.upCalls.set(startFloor);
+      this.upSize += passengers;
+    } else {
+      this.downRiders[startFloor] += passengers;
+      this.downCalls.set(startFloor);
+      this.downSize += passengers;
+    }
+  }
+
+  /**
+   * This method is used to remove the riders of a request from its call,
+   * one for each passenger, or as many of them as wait on the call.
+   * Riders are taken from those that arrived in the arrival step of the
+   * request first, then from the oldest riders of the call.
+   *
+   * @param request the request to remove.
+   * @return true if a rider was waiting on the call, false otherwise.
+   */
+  public boolean remove(Request request) {
+    return this.remove(request.getStartFloor(), request.getEndFloor(), request.getArrivalStep(),
+        request.getPassengers());
+  }
+
+  /**
+   * This method is used to remove riders from a call without a request object.
+   *
+   * @param startFloor  the start floor of the call.
+   * @param endFloor    the end floor of the call.
+   * @param arrivalStep the step the riders to take first arrived at.
+   * @param passengers  the number of riders to remove.
+   * @return true if a rider was waiting on the call, false otherwise.
+   */
+  public boolean remove(int startFloor, int endFloor, int arrivalStep, int passengers) {
+    int call = this.getCall(startFloor, endFloor);
+    if (this.riders[call] == 0) {
+      return false;
+    }
+    boolean up = startFloor < endFloor;
+    passengers = Math.min(passengers, this.riders[call]);
+    this.riders[call] -= passengers;
+    this.stamps[call].remove(arrivalStep, passengers);
+    if (this.riders[call] == 0) {
+      this.unlink(call, up);
+    } else if (this.stamps[call].getOldestStep() != this.arrivals[call]) {
+      this.arrivals[call] = this.stamps[call].getOldestStep();
+      this.unlinkOrder(call, up);
+      this.linkOrder(call, up);
+    }
+    if (up) {
+      this.upRiders[startFloor] -= passengers;
+      if (this.upRiders[startFloor] == 0) {
+        this.upCalls.clear(startFloor);
+      }
+      this.upSize -= passengers;
+    } else {
+      this.downRiders[startFloor] -= passengers;
+      if (this.downRiders[startFloor] == 0) {
+        this.downCalls.clear(startFloor);
+      }
+      this.downSize -= passengers;
+    }
+    return true;
+  }
+
+  /**
+   * This method is used to remove all the calls.
+   */
+  public void clear() {
+    for (int call = this.upHead; call != NONE; call = this.next[call]) {
+      this.riders[call] = 0;
+      this.stamps[call].clear();
+    }
+    for (int call = this.downHead; call != NONE; call = this.next[call]) {
+      this.riders[call] = 0;
+      this.stamps[call].clear();
+    }
+    this.upCalls.clear();
+    this.downCalls.clear();
+    Arrays.fill(this.upRiders, 0);
+    Arrays.fill(this.downRiders, 0);
+    Arrays.fill(this.bucketHead, NONE);
+    Arrays.fill(this.bucketTail, NONE);
+    this.upHead = NONE;
+    this.upTail = NONE;
+    this.downHead = NONE;
+    this.downTail = NONE;
+    this.upSize = 0;
+    this.downSize = 0;
+  }
+
+  /**
+   * This method is used to get the priority lane of the calls.
+   *
+   * @return the priority of the calls.
+   */
+  public RequestPriority getPriority() {
+    return this.priority;
+  }
+
+  /**
+   * This method is used to get the number of riders waiting on a call.
+   *
+   * @param startFloor the start floor of the call.
+   * @param endFloor   the end floor of the call.
+   * @return the number of riders.
+   */
+  public int getRiders(int startFloor, int endFloor) {
+    return this.riders[this.getCall(startFloor, endFloor)];
+  }
+
+  /**
+   * This method is used to get the step the oldest riders of a call have been waiting since.
+   *
+   * @param startFloor the start floor of the call.
+   * @param endFloor   the end floor of the call.
+   * @return the arrival step of the call.
+   */
+  public int getArrivalStep(int startFloor, int endFloor) {
+    return this.arrivals[this.getCall(startFloor, endFloor)];
+  }
+
+  /**
+   * This method is used to get the step the oldest call has been waiting since.
+   * The calls are kept in the order of their oldest riders, so this is the
+   * first call going up or the first call going down.
+   *
+   * @return the arrival step of the oldest call, or -1 if there are no calls.
+   */
+  public int getOldestArrivalStep() {
+    if (this.upHead == NONE) {
+      return this.downHead == NONE ? NONE : this.arrivals[this.downHead];
+    } else if (this.downHead == NONE) {
+      return this.arrivals[this.upHead];
+    }
+    return Math.min(this.arrivals[this.upHead], this.arrivals[this.downHead]);
+  }
+
+  /**
+   * This method is used to get a request of the oldest call.
+   *
+   * @return a request of the oldest call, or null if there are no calls.
+   */
+  public Request getOldestRequest() {
+    int call;
+    if (this.upHead == NONE) {
+      call = this.downHead;
+    } else if (this.downHead == NONE) {
+      call = this.upHead;
+    } else {
+      call = this.arrivals[this.upHead] <= this.arrivals[this.downHead]
+          ? this.upHead : this.downHead;
+    }
+    return call == NONE ? null : this.getRequest(call);
+  }
+
+  /**
+   * This method is used to check if the up or down button of a floor is lit.
+   *
+   * @param floor the floor.
+   * @param up    true for the up button, false for the down button.
+   * @return true if a rider waits at the floor in that direction.
+   */
+  public boolean hasCall(int floor, boolean up) {
+    return up ? this.upCalls.get(floor) : this.downCalls.get(floor);
+  }
+
+  /**
+   * This method is used to find the next floor with a call in a direction.
+   *
+   * @param fromFloor the first floor to look at.
+   * @param up        true for up calls, false for down calls.
+   * @return the lowest floor from fromFloor with a call, or -1 if there is none.
+   */
+  public int nextCallFloor(int fromFloor, boolean up) {
+    return up ? this.upCalls.nextSetBit(fromFloor) : this.downCalls.nextSetBit(fromFloor);
+  }
+
+  /**
+   * This method is used to get the number of riders waiting in a direction.
+   *
+   * @param up true for up riders, false for down riders.
+   * @return the number of riders.
+   */
+  public int size(boolean up) {
+    return up ? this.upSize : this.downSize;
+  }
+
+  /**
+   * This method is used to get the number of riders waiting.
+   *
+   * @return the number of riders.
+   */
+  public int size() {
+    return this.upSize + this.downSize;
+  }
+
+  /**
+   * This method is used to check if no rider is waiting.
+   *
+   * @return true if there are no calls.
+   */
+  public boolean isEmpty() {
+    return this.size() == 0;
+  }
+
+  /**
+   * This method is used to get one request per waiting rider in a direction,
+   * oldest call first.
+   *
+   * @param up true for up requests, false for down requests.
+   * @return the requests.
+   */
+  public List<Request> getRequests(boolean up) {
+    List<Request> requests = new ArrayList<>(this.size(up));
+    for (int call = up ? this.upHead : this.downHead; call != NONE; call = this.next[call]) {
+      this.addRiders(requests, call);
+    }
+    return requests;
+  }
+
+  /**
+   * This method is used to add one request per waiting rider of a call,
+   * oldest rider first.
+   *
+   * @param requests the requests to add to.
+   * @param call     the index of the call.
+   */
+  private void addRiders(List<Request> requests, int call) {
+    Stamps callStamps = this.stamps[call];
+    for (int group = 0; group < callStamps.size; ++group) {
+      Request request = this.getRequest(call, 1, callStamps.steps[callStamps.index(group)]);
+      for (int i = 0; i < callStamps.counts[callStamps.index(group)]; ++i) {
+        requests.add(request);
+      }
+    }
+  }
+
+  /**
+   * This method is used to get one request per call in a direction, oldest
+   * call first, with a passenger for each waiting rider of the call.
+   *
+   * @param up true for up calls, false for down calls.
+   * @return the requests.
+   */
+  public List<Request> getCalls(boolean up) {
+    List<Request> requests = new ArrayList<>();
+    for (int call = up ? this.upHead : this.downHead; call != NONE; call = this.next[call]) {
+      requests.add(this.getRequest(call, this.riders[call]));
+    }
+    return requests;
+  }
+
+  /**
+   * This method is used to get one request per waiting rider on the calls
+   * in a direction that start between two floors, lowest start floor first.
+   * The time taken follows the number of floors with a call and the requests
+   * found, not the number of calls.
+   *
+   * @param fromFloor the lowest start floor.
+   * @param toFloor   the highest start floor.
+   * @param up        true for up requests, false for down requests.
+   * @return the requests.
+   */
+  public List<Request> getRequests(int fromFloor, int toFloor, boolean up) {
+    List<Request> requests = new ArrayList<>();
+    int floor = this.nextCallFloor(Math.max(fromFloor, 0), up);
+    while (floor >= 0 && floor <= toFloor) {
+      for (int call = this.bucketHead[this.getBucket(floor, up)]; call != NONE;
+           call = this.bucketNext[call]) {
+        this.addRiders(requests, call);
+      }
+      floor = this.nextCallFloor(floor + 1, up);
+    }
+    return requests;
+  }
+
+  /**
+   * This method is used to get the requests an elevator can serve in a
+   * direction, oldest call first.  The riders of a call that arrived in the
+   * same step are coalesced into one request with a passenger for each of
+   * them, so the dispatch work follows the number of calls rather than the
+   * number of riders.  No call gives more passengers than the elevator can
+   * carry, since it could not take more of them in one run.
+   *
+   * @param elevator the elevator.
+   * @param up       true for up requests, false for down requests.
+   * @return the requests the elevator can serve.
+   */
+  public List<Request> getServableRequests(Elevator elevator, boolean up) {
+    List<Request> requests = new ArrayList<>();
+    for (int call = up ? this.upHead : this.downHead; call != NONE; call = this.next[call]) {
+      if (this.isServable(elevator, call)) {
+        Stamps callStamps = this.stamps[call];
+        int room = elevator.getMaxOccupancy();
+        for (int group = 0; group < callStamps.size && room > 0; ++group) {
+          int count = Math.min(callStamps.counts[callStamps.index(group)], room);
+          requests.add(this.getRequest(call, count, callStamps.steps[callStamps.index(group)]));
+          room -= count;
+        }
+      }
+    }
+    return requests;
+  }
+
+  /**
+   * This method is used to get the oldest call an elevator can serve in a direction.
+   *
+   * @param elevator the elevator.
+   * @param up       true for up calls, false for down calls.
+   * @return a request for the oldest call, or null if there is none.
+   */
+  public Request getOldestServableRequest(Elevator elevator, boolean up) {
+    for (int call = up ? this.upHead : this.downHead; call != NONE; call = this.next[call]) {
+      if (this.isServable(elevator, call)) {
+        return this.getRequest(call);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * This method is used to check if an elevator can serve a call in a direction.
+   * The floors with a lit button are scanned from the lowest floor the elevator serves.
+   *
+   * @param elevator the elevator.
+   * @param up       true for up calls, false for down calls.
+   * @return true if the elevator serves both floors of a call.
+   */
+  public boolean hasServableCall(Elevator elevator, boolean up) {
+    int floor = this.nextCallFloor(elevator.getLowestFloor(), up);
+    while (floor >= 0 && floor <= elevator.getHighestFloor()) {
+      if (elevator.servesFloor(floor)) {
+        for (int call = this.bucketHead[this.getBucket(floor, up)]; call != NONE;
+             call = this.bucketNext[call]) {
+          if (elevator.servesFloor(call % this.numberOfFloors)) {
+            return true;
+          }
+        }
+      }
+      floor = this.nextCallFloor(floor + 1, up);
+    }
+    return false;
+  }
+
+  /**
+   * This method is used to get the index of a call.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @return the index of the call.
+   * @throws IllegalArgumentException if the floors are not in the building or are the same.
+   */
+  private int getCall(int startFloor, int endFloor) throws IllegalArgumentException {
+    if (startFloor < 0 || startFloor >= this.numberOfFloors
+        || endFloor < 0 || endFloor >= this.numberOfFloors) {
+      throw new IllegalArgumentException("Floors must be between 0 and "
+          + (this.numberOfFloors - 1));
+    }
+    if (startFloor == endFloor) {
+      throw new IllegalArgumentException("Start floor and end floor must be different.");
+    }
+    return startFloor * this.numberOfFloors + endFloor;
+  }
+
+  /**
+   * This method is used to get the bucket of the calls starting at a floor.
+   *
+   * @param floor the start floor.
+   * @param up    true for up calls, false for down calls.
+   * @return the index of the bucket.
+   */
+  private int getBucket(int floor, boolean up) {
+    return up ? 2 * floor : 2 * floor + 1;
+  }
+
+  /**
+   * This method is used to build a request for a call.
+   *
+   * @param call the index of the call.
+   * @return the request.
+   */
+  private Request getRequest(int call) {
+    return new Request(call / this.numberOfFloors, call % this.numberOfFloors,
+        this.priority, this.arrivals[call]);
+  }
+
+  /**
+   * This method is used to build a request for some of the riders of a call.
+   *
+   * @param call       the index of the call.
+   * @param passengers the number of riders.
+   * @return the request.
+   */
+  private Request getRequest(int call, int passengers) {
+    return this.getRequest(call, passengers, this.arrivals[call]);
+  }
+
+  /**
+   * This method is used to build a request for riders of a call that arrived in a step.
+   *
+   * @param call        the index of the call.
+   * @param passengers  the number of riders.
+   * @param arrivalStep the step the riders arrived at.
+   * @return the request.
+   */
+  private Request getRequest(int call, int passengers, int arrivalStep) {
+    Request request = new Request(call / this.numberOfFloors, call % this.numberOfFloors,
+        this.priority, arrivalStep);
+    return passengers == 1 ? request : request.withPassengers(passengers);
+  }
+
+  /**
+   * This method is used to check if an elevator serves both floors of a call.
+   *
+   * @param elevator the elevator.
+   * @param call     the index of the call.
+   * @return true if the elevator can serve the call.
+   */
+  private boolean isServable(Elevator elevator, int call) {
+    return elevator.servesFloor(call / this.numberOfFloors)
+        && elevator.servesFloor(call % this.numberOfFloors);
+  }
+
+  /**
+   * This method is used to put a call at the end of its bucket and in order
+   * of its oldest riders in the calls of its direction.
+   *
+   * @param call the index of the call.
+   * @param up   true if the call goes up.
+   */
+  private void link(int call, boolean up) {
+    int bucket = this.getBucket(call / this.numberOfFloors, up);
+    this.bucketPrevious[call] = this.bucketTail[bucket];
+    this.bucketNext[call] = NONE;
+    if (this.bucketTail[bucket] == NONE) {
+      this.bucketHead[bucket] = call;
+    } else {
+      this.bucketNext[this.bucketTail[bucket]] = call;
+    }
+    this.bucketTail[bucket] = call;
+    this.linkOrder(call, up);
+  }
+
+  /**
+   * This method is used to add a call to the calls of its direction after
+   * the calls with older riders, walking back from the newest call since
+   * new calls are most often the newest.
+   *
+   * @param call the index of the call.
+   * @param up   true if the call goes up.
+   */
+  private void linkOrder(int call, boolean up) {
+    int tail = up ? this.upTail : this.downTail;
+    while (tail != NONE && this.arrivals[tail] > this.arrivals[call]) {
+      tail = this.previous[tail];
+    }
+    int after = tail == NONE ? (up ? this.upHead : this.downHead) : this.next[tail];
+    this.previous[call] = tail;
+    this.next[call] = after;
+    if (after == NONE) {
+      if (up) {
+        this.upTail = call;
+      } else {
+        this.downTail = call;
+      }
+    } else {
+      this.previous[after] = call;
+    }
+    if (tail == NONE) {
+      if (up) {
+        this.upHead = call;
+      } else {
+        this.downHead = call;
+      }
+    } else {
+      this.next[tail] = call;
+    }
+  }
+
+  /**
+   * This method is used to take a call out of the calls of its direction
+   * and of its bucket.
+   *
+   * @param call the index of the call.
+   * @param up   true if the call goes up.
+   */
+  private void unlink(int call, boolean up) {
+    int bucket = this.getBucket(call / this.numberOfFloors, up);
+    if (this.bucketPrevious[call] == NONE) {
+      this.bucketHead[bucket] = this.bucketNext[call];
+    } else {
+      this.bucketNext[this.bucketPrevious[call]] = this.bucketNext[call];
+    }
+    if (this.bucketNext[call] == NONE) {
+      this.bucketTail[bucket] = this.bucketPrevious[call];
+    } else {
+      this.bucketPrevious[this.bucketNext[call]] = this.bucketPrevious[call];
+    }
+    this.unlinkOrder(call, up);
+  }
+
+  /**
+   * This method is used to take a call out of the calls of its direction.
+   *
+   * @param call the index of the call.
+   * @param up   true if the call goes up.
+   */
+  private void unlinkOrder(int call, boolean up) {
+    if (this.previous[call] == NONE) {
+      if (up) {
+        this.upHead = this.next[call];
+      } else {
+        this.downHead = this.next[call];
+      }
+    } else {
+      this.next[this.previous[call]] = this.next[call];
+    }
+    if (this.next[call] == NONE) {
+      if (up) {
+        this.upTail = this.previous[call];
+      } else {
+        this.downTail = this.previous[call];
+      }
+    } else {
+      this.previous[this.next[call]] = this.previous[call];
+    }
+  }
+}
@@ -0,0 +1,273 @@
+package building;
+
+import building.enums.ElevatorFault;
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This class watches the elevators of a building for elevators that stop making progress.
+ * An elevator makes progress when it changes floor or opens or closes its door.
+ * An elevator with stops left that makes no progress for the timeout has failed:
+ * its work is handed to the other elevators, and it returns to service once it
+ * is repaired and has reached the ground floor.
+ * The detection latency is the steps from the injection of a fault to its detection.
+ * The recovery time is the steps from the detection until the other elevators
+ * have taken all the waiting requests of the failed elevator.
+ */
+public class HealthMonitor {
+  private int timeout;
+  private int[] lastFloors;
+  private boolean[] lastDoorClosed;
+  private int[] lastProgressSteps;
+  private int[] faultSteps;
+  private boolean[] failed;
+  private int failedElevators;
+  private final List<Recovery> recoveries = new ArrayList<>();
+  private int failovers;
+  private int detectedFaults;
+  private long detectionLatencyTotal;
+  private int recoveredFailovers;
+  private long recoveryTimeTotal;
+
+  /**
+   * The requests of a failed elevator that wait for another elevator.
+   */
+  private static final class Recovery {
+    private final int detectedStep;
+    private final List<Request> requests;
+
+    private Recovery(int detectedStep, List<Request> requests) {
+      this.detectedStep = detectedStep;
+      this.requests = requests;
+    }
+  }
+
+  /**
+   * The constructor for the health monitor.
+   *
+   * @param numberOfElevators the number of elevators in the building.
+   * @param timeout           the steps without progress before an elevator
+   *                          has failed, or 0 to never fail an elevator.
+   * @throws IllegalArgumentException if the timeout is negative.
+   */
+  public HealthMonitor(int numberOfElevators, int timeout) throws IllegalArgumentException {
+    this.setTimeout(timeout);
+    this.lastFloors = new int[numberOfElevators];
+    this.lastDoorClosed = new boolean[numberOfElevators];
+    this.lastProgressSteps = new int[numberOfElevators];
+    this.faultSteps = new int[numberOfElevators];
+    this.failed = new boolean[numberOfElevators];
+    Arrays.fill(this.lastDoorClosed, true);
+    Arrays.fill(this.faultSteps, -1);
+  }
+
+  /**
+   * The copy constructor for the health monitor, used when a building is forked.
+   *
+   * @param other the health monitor to copy.
+   */
+  public HealthMonitor(HealthMonitor other) {
+    this.timeout = other.timeout;
+    this.lastFloors = other.lastFloors.clone();
+    this.lastDoorClosed = other.lastDoorClosed.clone();
+    this.lastProgressSteps = other.lastProgressSteps.clone();
+    this.faultSteps = other.faultSteps.clone();
+    this.failed = other.failed.clone();
+    this.failedElevators = other.failedElevators;
+    for (Recovery recovery : other.recoveries) {
+      this.recoveries.add(new Recovery(recovery.detectedStep, new ArrayList<>(recovery.requests)));
+    }
+    this.failovers = other.failovers;
+    this.detectedFaults = other.detectedFaults;
+    this.detectionLatencyTotal = other.detectionLatencyTotal;
+    this.recoveredFailovers = other.recoveredFailovers;
+    this.recoveryTimeTotal = other.recoveryTimeTotal;
+  }
+
+  /**
+   * This method is used to set the steps without progress before an elevator has failed.
+   *
+   * @param timeout the timeout in steps, or 0 to never fail an elevator.
+   * @throws IllegalArgumentException if the timeout is negative.
+   */
+  public void setTimeout(int timeout) throws IllegalArgumentException {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("The failover timeout cannot be negative.");
+    }
+    this.timeout = timeout;
+  }
+
+  /**
+   * This method is used to get the steps without progress before an elevator has failed.
+   *
+   * @return the timeout in steps, or 0 if elevators never fail.
+   */
+  public int getTimeout() {
+    return this.timeout;
+  }
+
+  /**
+   * This method is used to follow the number of elevators when the fleet is resized.
+   * Elevators are added and removed at the end.
+   *
+   * @param numberOfElevators the new number of elevators.
+   */
+  void resize(int numberOfElevators) {
+    int oldNumber = this.failed.length;
+    for (int i = numberOfElevators; i < oldNumber; ++i) {
+      if (this.failed[i]) {
+        --this.failedElevators;
+      }
+    }
+    this.lastFloors = Arrays.copyOf(this.lastFloors, numberOfElevators);
+    this.lastDoorClosed = Arrays.copyOf(this.lastDoorClosed, numberOfElevators);
+    this.lastProgressSteps = Arrays.copyOf(this.lastProgressSteps, numberOfElevators);
+    this.faultSteps = Arrays.copyOf(this.faultSteps, numberOfElevators);
+    this.failed = Arrays.copyOf(this.failed, numberOfElevators);
+    for (int i = oldNumber; i < numberOfElevators; ++i) {
+      this.lastDoorClosed[i] = true;
+      this.faultSteps[i] = -1;
+    }
+  }
+
+  /**
+   * This method is used to remember the step a fault was injected into an elevator.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @param fault         the fault injected.
+   * @param step          the step of the building.
+   */
+  void recordFault(int elevatorIndex, ElevatorFault fault, int step) {
+    if (fault == ElevatorFault.none) {
+      this.faultSteps[elevatorIndex] = -1;
+    } else if (this.faultSteps[elevatorIndex] < 0) {
+      this.faultSteps[elevatorIndex] = step;
+    }
+  }
+
+  /**
+   * This method is used to check the elevators after they have stepped.
+   * Failed elevators are handed to the building to redistribute their work,
+   * and repaired elevators back on the ground floor are returned to service.
+   *
+   * @param building the building of the elevators.
+   * @param step     the step of the building.
+   */
+  void check(Building building, int step) {
+    if (this.timeout == 0 && this.failedElevators == 0 && this.recoveries.isEmpty()) {
+      return;
+    }
+    Elevator[] elevators = building.getElevators();
+    for (int i = 0; i < elevators.length; ++i) {
+      Elevator elevator = elevators[i];
+      if (this.failed[i]) {
+        if (elevator.getFault() == ElevatorFault.none
+            && elevator.getCurrentFloor() == 0 && !elevator.isDoorClosed()) {
+          this.failed[i] = false;
+          --this.failedElevators;
+          this.lastProgressSteps[i] = step;
+          building.restoreElevator(i);
+        }
+        continue;
+      }
+
+      boolean progress = elevator.getCurrentFloor() != this.lastFloors[i]
+          || elevator.isDoorClosed() != this.lastDoorClosed[i];
+      this.lastFloors[i] = elevator.getCurrentFloor();
+      this.lastDoorClosed[i] = elevator.isDoorClosed();
+      if (progress || !hasStops(elevator) || building.isInMaintenance(i)
+          || elevator.getElevatorStatus().isOutOfService()) {
+        this.lastProgressSteps[i] = step;
+      } else if (this.timeout > 0 && step - this.lastProgressSteps[i] >= this.timeout) {
+        this.fail(building, i, step);
+      }
+    }
+
+    Iterator<Recovery> iterator = this.recoveries.iterator();
+    while (iterator.hasNext()) {
+      Recovery recovery = iterator.next();
+      recovery.requests.removeIf(request -> !building.isWaiting(request));
+      if (recovery.requests.isEmpty()) {
+        ++this.recoveredFailovers;
+        this.recoveryTimeTotal += step - recovery.detectedStep;
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * This method is used to fail an elevator and hand its work to the building.
+   *
+   * @param building      the building of the elevator.
+   * @param elevatorIndex the index of the elevator.
+   * @param step          the step of the building.
+   */
+  private void fail(Building building, int elevatorIndex, int step) {
+    this.failed[elevatorIndex] = true;
+    ++this.failedElevators;
+    ++this.failovers;
+    if (this.faultSteps[elevatorIndex] >= 0) {
+      ++this.detectedFaults;
+      this.detectionLatencyTotal += step - this.faultSteps[elevatorIndex];
+      this.faultSteps[elevatorIndex] = -1;
+    }
+    this.recoveries.add(new Recovery(step, building.failElevator(elevatorIndex)));
+  }
+
+  /**
+   * This method is used to check if an elevator has stops left.
+   *
+   * @param elevator the elevator to check.
+   * @return true if the elevator has a floor request.
+   */
+  private static boolean hasStops(Elevator elevator) {
+    for (boolean floorRequest : elevator.getFloorRequests()) {
+      if (floorRequest) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * This method is used to check if an elevator has failed and not yet returned to service.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @return true if the elevator has failed.
+   */
+  public boolean isFailed(int elevatorIndex) {
+    return this.failed[elevatorIndex];
+  }
+
+  /**
+   * This method is used to get how many times an elevator has failed.
+   *
+   * @return the number of failovers.
+   */
+  public int getFailovers() {
+    return this.failovers;
+  }
+
+  /**
+   * This method is used to get the mean steps from the injection of a fault to its detection.
+   *
+   * @return the mean detection latency, or 0 if no injected fault was detected.
+   */
+  public double getMeanDetectionLatency() {
+    return this.detectedFaults == 0 ? 0 : (double) this.detectionLatencyTotal / this.detectedFaults;
+  }
+
+  /**
+   * This method is used to get the mean steps from the detection of a failed
+   * elevator until the other elevators have taken its waiting requests.
+   *
+   * @return the mean recovery time, or 0 if no failover has recovered.
+   */
+  public double getMeanRecoveryTime() {
+    return this.recoveredFailovers == 0 ? 0 : (double) this.recoveryTimeTotal / this.recoveredFailovers;
+  }
+}
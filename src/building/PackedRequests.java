@@ -0,0 +1,277 @@
+package building;
+
+import scanerzus.Request;
+import scanerzus.RequestPriority;
+
+/**
+ * This class holds a queue of requests packed into longs, so queuing a request
+ * takes no object of its own.
+ * <p></p>
+ * A packed request keeps its start floor and end floor in 8 bits each, its
+ * priority in 4 bits and its passengers in 20 bits.  A building has at most 30
+ * floors, the most an elevator serves, so a floor fits in 5 bits and 8 leave
+ * room to spare.  Requests are only built from the packed longs when they
+ * leave the queue.  Packed requests have no id or arrival step; the building
+ * tracks a second leg under the id of the request it belongs to once it is queued.
+ */
+class PackedRequests {
+  private static final int FLOOR_BITS = 8;
+  private static final int PRIORITY_BITS = 4;
+  private static final int PASSENGER_BITS = 20;
+  private static final long FLOOR_MASK = (1L << FLOOR_BITS) - 1;
+  private static final long PRIORITY_MASK = (1L << PRIORITY_BITS) - 1;
+  private static final long PASSENGER_MASK = (1L << PASSENGER_BITS) - 1;
+  private static final int END_SHIFT = FLOOR_BITS;
+  private static final int PRIORITY_SHIFT = 2 * FLOOR_BITS;
+  private static final int PASSENGER_SHIFT = 2 * FLOOR_BITS + PRIORITY_BITS;
+  private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+  /**
+   * The most passengers a packed request can hold.
+   */
+  static final int MAX_PASSENGERS = (int) PASSENGER_MASK;
+
+  private long[] elements = new long[4];
+  private int head;
+  private int size;
+  private int passengers;
+
+  /**
+   * The constructor for an empty queue.
+   */
+  PackedRequests() {
+    // The requests are added with addLast and addFirst.
+  }
+
+  /**
+   * The copy constructor for the queue, used when a building is forked.
+   *
+   * @param other the queue to copy.
+   */
+  PackedRequests(PackedRequests other) {
+    this.elements = other.elements.clone();
+    this.head = other.head;
+    this.size = other.size;
+    this.passengers = other.passengers;
+  }
+
+  /**
+   * This method is used to pack a request into a long.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @param priority   the priority lane of the request.
+   * @param passengers the number of people travelling together.
+   * @return the packed request.
+   */
+  static long pack(int startFloor, int endFloor, RequestPriority priority, int passengers) {
+    return (startFloor & FLOOR_MASK)
+        | (endFloor & FLOOR_MASK) << END_SHIFT
+        | (priority.ordinal() & PRIORITY_MASK) << PRIORITY_SHIFT
+        | (passengers & PASSENGER_MASK) << PASSENGER_SHIFT;
+  }
+
+  /**
+   * This method is used to get the start floor of a packed request.
+   *
+   * @param packed the packed request.
+   * @return the start floor.
+   */
+  static int getStartFloor(long packed) {
+    return (int) (packed & FLOOR_MASK);
+  }
+
+  /**
+   * This method is used to get the end floor of a packed request.
+   *
+   * @param packed the packed request.
+   * @return the end floor.
+   */
+  static int getEndFloor(long packed) {
+    return (int) (packed >>> END_SHIFT & FLOOR_MASK);
+  }
+
+  /**
+   * This method is used to get the priority lane of a packed request.
+   *
+   * @param packed the packed request.
+   * @return the priority.
+   */
+  static RequestPriority getPriority(long packed) {
+    return PRIORITIES[(int) (packed >>> PRIORITY_SHIFT & PRIORITY_MASK)];
+  }
+
+  /**
+   * This method is used to get the passengers of a packed request.
+   *
+   * @param packed the packed request.
+   * @return the number of passengers.
+   */
+  static int getPassengers(long packed) {
+    return (int) (packed >>> PASSENGER_SHIFT & PASSENGER_MASK);
+  }
+
+  /**
+   * This method is used to build a request from a packed request.
+   *
+   * @param packed the packed request.
+   * @return the request, with a new id of its own.
+   */
+  static Request unpack(long packed) {
+    Request request = new Request(getStartFloor(packed), getEndFloor(packed),
+        getPriority(packed));
+    int passengers = getPassengers(packed);
+    return passengers == 1 ? request : request.withPassengers(passengers);
+  }
+
+  /**
+   * This method is used to change the passengers of a packed request.
+   *
+   * @param packed     the packed request.
+   * @param passengers the new number of passengers.
+   * @return the packed request with the passengers.
+   */
+  private static long withPassengers(long packed, int passengers) {
+    return packed & ~(PASSENGER_MASK << PASSENGER_SHIFT)
+        | (passengers & PASSENGER_MASK) << PASSENGER_SHIFT;
+  }
+
+  /**
+   * This method is used to add a packed request at the back of the queue.
+   *
+   * @param packed the packed request.
+   */
+  void addLast(long packed) {
+    this.grow();
+    this.elements[(this.head + this.size) % this.elements.length] = packed;
+    ++this.size;
+    this.passengers += getPassengers(packed);
+  }
+
+  /**
+   * This method is used to add a packed request at the front of the queue.
+   *
+   * @param packed the packed request.
+   */
+  void addFirst(long packed) {
+    this.grow();
+    this.head = (this.head - 1 + this.elements.length) % this.elements.length;
+    this.elements[this.head] = packed;
+    ++this.size;
+    this.passengers += getPassengers(packed);
+  }
+
+  /**
+   * This method is used to put the requests of another queue back at the
+   * front of this queue, in the order they are in.
+   *
+   * @param other the requests to put back.
+   */
+  void addAllFirst(PackedRequests other) {
+    for (int i = other.size - 1; i >= 0; --i) {
+      this.addFirst(other.get(i));
+    }
+  }
+
+  /**
+   * This method is used to take passengers from the front of the queue.
+   * A request is split when only some of its passengers are taken.
+   *
+   * @param count the number of passengers to take.
+   * @return the requests taken, in order.
+   */
+  PackedRequests pollPassengers(int count) {
+    PackedRequests taken = new PackedRequests();
+    while (count > 0 && this.size > 0) {
+      long packed = this.elements[this.head];
+      int available = getPassengers(packed);
+      if (available <= count) {
+        this.head = (this.head + 1) % this.elements.length;
+        --this.size;
+        this.passengers -= available;
+        taken.addLast(packed);
+        count -= available;
+      } else {
+        this.elements[this.head] = withPassengers(packed, available - count);
+        this.passengers -= count;
+        taken.addLast(withPassengers(packed, count));
+        count = 0;
+      }
+    }
+    return taken;
+  }
+
+  /**
+   * This method is used to drop passengers from the back of the queue.
+   *
+   * @param count the number of passengers to drop.
+   */
+  void dropLastPassengers(int count) {
+    while (count > 0 && this.size > 0) {
+      int last = (this.head + this.size - 1) % this.elements.length;
+      int available = getPassengers(this.elements[last]);
+      if (available <= count) {
+        --this.size;
+        this.passengers -= available;
+        count -= available;
+      } else {
+        this.elements[last] = withPassengers(this.elements[last], available - count);
+        this.passengers -= count;
+        count = 0;
+      }
+    }
+  }
+
+  /**
+   * This method is used to get a packed request of the queue.
+   *
+   * @param index the index from the front of the queue.
+   * @return the packed request.
+   */
+  long get(int index) {
+    return this.elements[(this.head + index) % this.elements.length];
+  }
+
+  /**
+   * This method is used to get the number of packed requests in the queue.
+   *
+   * @return the number of requests.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * This method is used to get the number of passengers of the queue.
+   *
+   * @return the passengers of all the requests.
+   */
+  int getPassengers() {
+    return this.passengers;
+  }
+
+  /**
+   * This method is used to check if the queue is empty.
+   *
+   * @return true if there are no requests.
+   */
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * This method is used to make room for one more request, keeping the
+   * requests in order from the front.
+   */
+  private void grow() {
+    if (this.size < this.elements.length) {
+      return;
+    }
+    long[] grown = new long[this.elements.length * 2];
+    for (int i = 0; i < this.size; ++i) {
+      grown[i] = this.get(i);
+    }
+    this.elements = grown;
+    this.head = 0;
+  }
+}
@@ -0,0 +1,97 @@
+package building;
+
+import building.enums.Direction;
+import elevator.Elevator;
+
+/**
+ * This policy parks idle elevators at the end where requests are predicted
+ * to appear in the current period of the day.
+ * Up requests are taken at the bottom floor and down requests at the top
+ * floor, so the idle elevators of a bank are split between the two ends in
+ * proportion to the predicted up and down demand of their floors.
+ * Elevators at an end with more idle elevators than it needs leave for the
+ * other end, and the others park where they are.
+ */
+public class PredictiveParking extends DemandAwareTerminalWait {
+
+  /**
+   * The constructor for the policy with a hold time and lookahead of 10 steps.
+   */
+  public PredictiveParking() {
+    super();
+  }
+
+  /**
+   * The constructor for the policy.
+   *
+   * @param holdTime  the steps an elevator keeps waiting when it holds or parks.
+   * @param lookahead the steps ahead the demand is predicted for.
+   * @throws IllegalArgumentException if the hold time or lookahead is less than 1.
+   */
+  public PredictiveParking(int holdTime, int lookahead) throws IllegalArgumentException {
+    super(holdTime, lookahead);
+  }
+
+  @Override
+  protected int getIdleWait(Building building, Elevator elevator, boolean atBottom) {
+    DemandModel demandModel = building.getDemandModel();
+    double upDemand = 0;
+    double downDemand = 0;
+    for (int floor = 0; floor < building.getNumberOfFloors(); ++floor) {
+      if (elevator.servesFloor(floor)) {
+        upDemand += demandModel.getPredictedUpDemand(floor);
+        downDemand += demandModel.getPredictedDownDemand(floor);
+      }
+    }
+    if (upDemand + downDemand <= 0) {
+      return this.holdTime;
+    }
+
+    // Count the idle elevators of the same floors at or on their way to each
+    // end.  Elevators on their way count first, then the waiting elevators in
+    // the order of the building, so only the last ones to park at an end leave.
+    int idle = 0;
+    int idleAtBottom = 0;
+    int before = 0;
+    Direction towardsHere = atBottom ? Direction.DOWN : Direction.UP;
+    for (Elevator other : building.getElevators()) {
+      if (other.getLowestFloor() != elevator.getLowestFloor()
+          || other.getHighestFloor() != elevator.getHighestFloor()) {
+        continue;
+      }
+      boolean waiting = other.isWaitingAtTerminal() && this.isIdle(building, other);
+      boolean running = Building.isRunningEmpty(other);
+      if (!waiting && !running) {
+        continue;
+      }
+      boolean bottomSide = waiting
+          ? other.getCurrentFloor() == other.getLowestFloor()
+          : other.getDirection() == Direction.DOWN;
+      idle++;
+      if (bottomSide) {
+        idleAtBottom++;
+      }
+      if ((bottomSide == atBottom && other.getElevatorId() < elevator.getElevatorId())
+          || (running && other.getDirection() == towardsHere)) {
+        before++;
+      }
+    }
+
+    int wantedAtBottom = (int) Math.round(idle * upDemand / (upDemand + downDemand));
+    int wantedHere = atBottom ? wantedAtBottom : idle - wantedAtBottom;
+    return before >= wantedHere ? 0 : this.holdTime;
+  }
+
+  /**
+   * This method is used to check if a waiting elevator has no queued requests
+   * to take at its end.
+   *
+   * @param building the building.
+   * @param elevator the waiting elevator.
+   * @return true if the elevator is idle.
+   */
+  private boolean isIdle(Building building, Elevator elevator) {
+    boolean atBottom = elevator.getCurrentFloor() == elevator.getLowestFloor();
+    return !building.hasServableCall(elevator, atBottom);
+  }
+}
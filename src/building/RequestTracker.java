@@ -0,0 +1,715 @@
+package building;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import scanerzus.Request;
+import scanerzus.RequestPriority;
+
+/**
+ * This class keeps track of the requests of a building by id until they board,
+ * so they can be cancelled or expire.
+ * Riders on the same call are alike in the hall calls, so a waiting request
+ * is only known by its call, and the ids on a call are handed out oldest first
+ * when an elevator takes riders of the call.  A group request keeps its id
+ * until every one of its riders has been handed out, and its riders may be
+ * given to several elevators.  The riders an elevator takes from a call come
+ * as one coalesced request, which is split into one part per tracked request
+ * so each of them can still be cancelled on its own.
+ * The tickets are kept in a map keyed by their id and are linked on their
+ * call, so a call needs no list of its own.  A ticket
+ * is dropped once every rider of it has boarded, apart from a request that
+ * transfers at a sky lobby, whose ticket is kept while its riders ride the
+ * first leg.  Its second leg is tracked under the same id once it is queued,
+ * so the request can still be cancelled or expire by its id.
+ * Every operation takes constant time per rider, apart from cancelling a
+ * request given to an elevator, which looks through the run of that elevator.
+ */
+public class RequestTracker {
+  private final int numberOfFloors;
+  private final Map<Long, Ticket> tickets = new HashMap<>();
+  private Ticket[] waitingHead;
+  private Ticket[] waitingTail;
+  private final List<Run> runs = new ArrayList<>();
+  private final Map<Integer, List<Ticket>> expiries = new HashMap<>();
+  private final Map<Request, Ticket> riding = new IdentityHashMap<>();
+
+  /**
+   * The state of a request that has not boarded.
+   */
+  static final class Ticket {
+    private final long id;
+    private final Request leg;
+    private final boolean transfer;
+    private final int arrivalStep;
+    private final int ttl;
+    private int waitingRiders;
+    private Map<Request, Integer> assigned;
+    private Set<Request> riding;
+    private Ticket sameId;
+    private Ticket waitingNext;
+    private Ticket waitingPrevious;
+    private boolean tracked;
+
+    private Ticket(long id, Request leg, boolean transfer, int arrivalStep, int ttl,
+                   int waitingRiders) {
+      this.id = id;
+      this.leg = leg;
+      this.transfer = transfer;
+      this.arrivalStep = arrivalStep;
+      this.ttl = ttl;
+      this.waitingRiders = waitingRiders;
+    }
+
+    private Ticket(Ticket other) {
+      this(other.id, other.leg, other.transfer, other.arrivalStep, other.ttl,
+          other.waitingRiders);
+      if (other.assigned != null) {
+        this.assigned = new IdentityHashMap<>(other.assigned);
+      }
+      if (other.riding != null) {
+        this.riding = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.riding.addAll(other.riding);
+      }
+      this.tracked = other.tracked;
+    }
+
+    /**
+     * This method is used to get the call the request waits on, that is the
+     * first leg of a request that transfers at a sky lobby.
+     *
+     * @return the leg of the request in the hall calls.
+     */
+    Request getLeg() {
+      return this.leg;
+    }
+
+    /**
+     * This method is used to get the step the riders of the request were queued at.
+     *
+     * @return the arrival step of the riders in the hall calls.
+     */
+    int getArrivalStep() {
+      return this.arrivalStep;
+    }
+
+    /**
+     * This method is used to check if a second leg waits on each rider of the request.
+     *
+     * @return true if the request transfers at a sky lobby.
+     */
+    boolean isTransfer() {
+      return this.transfer;
+    }
+
+    /**
+     * This method is used to get how many riders of the request still wait on its call.
+     *
+     * @return the number of waiting riders.
+     */
+    int getWaitingRiders() {
+      return this.waitingRiders;
+    }
+
+    /**
+     * This method is used to get the riders of the request given to elevators.
+     *
+     * @return the requests in the runs of the elevators, mapped to the index of their elevator.
+     */
+    Map<Request, Integer> getAssigned() {
+      return this.assigned == null ? Collections.emptyMap() : this.assigned;
+    }
+
+    /**
+     * This method is used to get the first legs of the request that riders
+     * have boarded, whose second legs are not queued yet.
+     *
+     * @return the first legs being ridden.
+     */
+    Set<Request> getRiding() {
+      return this.riding == null ? Collections.emptySet() : this.riding;
+    }
+
+    /**
+     * This method is used to note riders of the request given to an elevator.
+     *
+     * @param part          the riders given to the elevator.
+     * @param elevatorIndex the index of the elevator.
+     */
+    private void assign(Request part, int elevatorIndex) {
+      if (this.assigned == null) {
+        this.assigned = new IdentityHashMap<>();
+      }
+      this.assigned.put(part, elevatorIndex);
+    }
+
+    /**
+     * This method is used to check if every rider of the request has boarded or been dropped.
+     *
+     * @return true if the request no longer needs tracking.
+     */
+    private boolean isDone() {
+      return this.waitingRiders == 0 && (this.assigned == null || this.assigned.isEmpty())
+          && (this.riding == null || this.riding.isEmpty());
+    }
+  }
+
+  /**
+   * The riders an elevator took in its current run, one part per ticket.
+   * The lists of an elevator are reused from run to run.
+   */
+  private static final class Run {
+    private final List<Ticket> tickets = new ArrayList<>();
+    private final List<Request> parts = new ArrayList<>();
+  }
+
+  /**
+   * The constructor for the request tracker.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   */
+  public RequestTracker(int numberOfFloors) {
+    this.numberOfFloors = numberOfFloors;
+  }
+
+  /**
+   * The copy constructor for the request tracker, used when a building is forked.
+   *
+   * @param other the request tracker to copy.
+   */
+  public RequestTracker(RequestTracker other) {
+    this.numberOfFloors = other.numberOfFloors;
+    Map<Ticket, Ticket> copies = new IdentityHashMap<>();
+    for (Ticket ticket : other.tickets.values()) {
+      Ticket copy = new Ticket(ticket);
+      copies.put(ticket, copy);
+      this.tickets.put(copy.id, copy);
+      for (Ticket next = ticket.sameId; next != null; next = next.sameId) {
+        copy.sameId = new Ticket(next);
+        copies.put(next, copy.sameId);
+        copy = copy.sameId;
+      }
+    }
+    if (other.waitingHead != null) {
+      this.waitingHead = new Ticket[other.waitingHead.length];
+      this.waitingTail = new Ticket[other.waitingTail.length];
+      for (int key = 0; key < other.waitingHead.length; ++key) {
+        for (Ticket ticket = other.waitingHead[key]; ticket != null;
+             ticket = ticket.waitingNext) {
+          this.linkWaiting(key, copies.get(ticket));
+        }
+      }
+    }
+    for (Run run : other.runs) {
+      Run copy = new Run();
+      if (run != null) {
+        for (Ticket ticket : run.tickets) {
+          Ticket ticketCopy = copies.get(ticket);
+          copy.tickets.add(ticketCopy == null ? ticket : ticketCopy);
+        }
+        copy.parts.addAll(run.parts);
+      }
+      this.runs.add(copy);
+    }
+    for (Map.Entry<Integer, List<Ticket>> entry : other.expiries.entrySet()) {
+      List<Ticket> due = new ArrayList<>();
+      for (Ticket ticket : entry.getValue()) {
+        // Tickets no longer tracked are kept as they are, since they are only skipped.
+        Ticket copy = copies.get(ticket);
+        due.add(copy == null ? ticket : copy);
+      }
+      this.expiries.put(entry.getKey(), due);
+    }
+    for (Map.Entry<Request, Ticket> entry : other.riding.entrySet()) {
+      // A ticket that expired while its riders ride is no longer tracked, but is still copied.
+      this.riding.put(entry.getKey(), copies.computeIfAbsent(entry.getValue(), Ticket::new));
+    }
+  }
+
+  /**
+   * This method is used to get the key of the call of a request.
+   *
+   * @param request the request.
+   * @return the key of the call.
+   */
+  private int getKey(Request request) {
+    return (request.getPriority().ordinal() * this.numberOfFloors + request.getStartFloor())
+        * this.numberOfFloors + request.getEndFloor();
+  }
+
+  /**
+   * This method is used to start tracking a request queued in the hall calls.
+   *
+   * @param request     the request as it was added to the building.
+   * @param leg         the leg of the request queued in the hall calls.
+   * @param arrivalStep the step the leg was queued at.
+   * @param expiryStep  the step the request expires at, or -1 if it does not expire.
+   */
+  void add(Request request, Request leg, int arrivalStep, int expiryStep) {
+    Ticket ticket = new Ticket(request.getId(), leg,
+        leg.getEndFloor() != request.getEndFloor(), arrivalStep,
+        expiryStep >= 0 ? expiryStep - arrivalStep : 0, request.getPassengers());
+    this.put(ticket);
+    this.linkWaiting(this.getKey(leg), ticket);
+    if (expiryStep >= 0) {
+      this.expiries.computeIfAbsent(expiryStep, key -> new ArrayList<>()).add(ticket);
+    }
+  }
+
+  /**
+   * This method is used to start tracking the second leg of a request under
+   * the id of the request.  The second leg may wait as long as the request could.
+   *
+   * @param ticket      the ticket of the request, from landing its first leg.
+   * @param secondLeg   the second leg queued in the hall calls.
+   * @param arrivalStep the step the second leg was queued at.
+   */
+  void addSecondLeg(Ticket ticket, Request secondLeg, int arrivalStep) {
+    Ticket second = new Ticket(ticket.id, secondLeg, false, arrivalStep, ticket.ttl,
+        secondLeg.getPassengers());
+    second.sameId = this.tickets.put(second.id, second);
+    second.tracked = true;
+    this.linkWaiting(this.getKey(secondLeg), second);
+    if (ticket.ttl > 0) {
+      this.expiries.computeIfAbsent(arrivalStep + ticket.ttl, key -> new ArrayList<>())
+          .add(second);
+    }
+  }
+
+  /**
+   * This method is used to stop following riders of a first leg once they
+   * reach the sky lobby.
+   *
+   * @param firstLeg the first leg given to the elevator.
+   * @return the ticket of the request, or null if the riders are not followed.
+   */
+  Ticket land(Request firstLeg) {
+    Ticket ticket = this.riding.remove(firstLeg);
+    if (ticket != null) {
+      ticket.riding.remove(firstLeg);
+      if (ticket.tracked && ticket.isDone()) {
+        this.removeTicket(ticket);
+      }
+    }
+    return ticket;
+  }
+
+  /**
+   * This method is used to follow riders of a first leg on the leg they
+   * take instead, when their elevator is taken out of service.
+   *
+   * @param firstLeg the first leg given to the elevator.
+   * @param toGround the leg the riders take to the ground floor, or null if
+   *                 they leave there.
+   */
+  void reroute(Request firstLeg, Request toGround) {
+    Ticket ticket = this.land(firstLeg);
+    if (ticket != null && toGround != null) {
+      this.ride(ticket, toGround);
+    }
+  }
+
+  /**
+   * This method is used to give the oldest waiting ids of the calls to an elevator.
+   * The riders of the previous run of the elevator have all boarded, so
+   * they are no longer tracked.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @param requests      the requests given to the elevator.
+   * @return the requests split into one part per tracked request, to be
+   *         given to the elevator in their place.
+   */
+  List<Request> assign(int elevatorIndex, List<Request> requests) {
+    Run run = this.getRun(elevatorIndex);
+    if (run != null) {
+      this.board(elevatorIndex, run, null);
+    }
+    if (this.tickets.isEmpty()) {
+      return requests;
+    }
+    List<Request> parts = new ArrayList<>();
+    for (Request request : requests) {
+      int left = request.getPassengers();
+      Ticket ticket = this.getWaiting(request);
+      while (left > 0 && ticket != null) {
+        int riders = Math.min(left, ticket.waitingRiders);
+        Request part = riders == request.getPassengers()
+            ? request : request.withPassengers(riders);
+        this.takeWaiting(ticket, riders);
+        ticket.assign(part, elevatorIndex);
+        if (run == null) {
+          run = this.addRun(elevatorIndex);
+        }
+        run.tickets.add(ticket);
+        run.parts.add(part);
+        parts.add(part);
+        left -= riders;
+        ticket = this.getWaiting(request);
+      }
+      if (left > 0) {
+        parts.add(left == request.getPassengers() ? request : request.withPassengers(left));
+      }
+    }
+    return parts;
+  }
+
+  /**
+   * This method is used to stop tracking the riders of an elevator that have
+   * boarded, that is whose start floor is no longer a stop of the elevator,
+   * so the tickets of an elevator left idle do not wait for its next run.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @param floorRequests the stops of the elevator.
+   */
+  void board(int elevatorIndex, boolean[] floorRequests) {
+    Run run = this.getRun(elevatorIndex);
+    if (run != null && !run.tickets.isEmpty()) {
+      this.board(elevatorIndex, run, floorRequests);
+    }
+  }
+
+  /**
+   * This method is used to stop tracking the riders of a run that have boarded.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @param run           the run of the elevator.
+   * @param floorRequests the stops of the elevator, or null if every rider has boarded.
+   */
+  private void board(int elevatorIndex, Run run, boolean[] floorRequests) {
+    int kept = 0;
+    for (int i = 0; i < run.tickets.size(); ++i) {
+      Ticket ticket = run.tickets.get(i);
+      Request part = run.parts.get(i);
+      if (floorRequests != null && floorRequests[part.getStartFloor()]) {
+        run.tickets.set(kept, ticket);
+        run.parts.set(kept, part);
+        ++kept;
+      } else if (ticket.assigned != null && ticket.assigned.remove(part) != null) {
+        this.boarded(ticket, part);
+      }
+    }
+    this.truncate(run, kept);
+  }
+
+  /**
+   * This method is used to note riders of a request that boarded, following
+   * them while they ride the first leg of a transfer.
+   *
+   * @param ticket the ticket of the request.
+   * @param part   the riders that boarded.
+   */
+  private void boarded(Ticket ticket, Request part) {
+    if (ticket.transfer) {
+      this.ride(ticket, part);
+    } else if (ticket.isDone()) {
+      this.removeTicket(ticket);
+    }
+  }
+
+  /**
+   * This method is used to follow riders of a request riding a first leg.
+   *
+   * @param ticket   the ticket of the request.
+   * @param firstLeg the first leg being ridden.
+   */
+  private void ride(Ticket ticket, Request firstLeg) {
+    if (ticket.riding == null) {
+      ticket.riding = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+    ticket.riding.add(firstLeg);
+    this.riding.put(firstLeg, ticket);
+  }
+
+  /**
+   * This method is used to stop tracking the oldest rider waiting on a call
+   * that was dropped from the hall calls.
+   *
+   * @param leg a request of the call.
+   */
+  void drop(Request leg) {
+    Ticket ticket = this.getWaiting(leg);
+    if (ticket != null) {
+      this.takeWaiting(ticket, 1);
+      if (ticket.isDone()) {
+        this.removeTicket(ticket);
+      }
+    }
+  }
+
+  /**
+   * This method is used to get the oldest request waiting on the call of a request.
+   *
+   * @param leg a request of the call.
+   * @return the ticket of the request, or null if no tracked request waits on the call.
+   */
+  private Ticket getWaiting(Request leg) {
+    return this.waitingHead == null ? null : this.waitingHead[this.getKey(leg)];
+  }
+
+  /**
+   * This method is used to take riders of a request off its call.  The id of
+   * the request stays on the call while other riders of it wait.
+   *
+   * @param ticket the ticket of the request.
+   * @param riders the number of riders taken, at most the riders waiting.
+   */
+  private void takeWaiting(Ticket ticket, int riders) {
+    ticket.waitingRiders -= riders;
+    if (ticket.waitingRiders == 0) {
+      this.unlinkWaiting(this.getKey(ticket.leg), ticket);
+    }
+  }
+
+  /**
+   * This method is used to follow the requests of an elevator taken out of service.
+   * The riders queued again wait on their calls again, and the others have boarded.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @param requeued      the requests of the elevator queued again.
+   */
+  void release(int elevatorIndex, List<Request> requeued) {
+    Run run = this.getRun(elevatorIndex);
+    if (run == null || run.tickets.isEmpty()) {
+      return;
+    }
+    Set<Request> waitingAgain = Collections.newSetFromMap(new IdentityHashMap<>());
+    waitingAgain.addAll(requeued);
+    for (int i = 0; i < run.tickets.size(); ++i) {
+      Ticket ticket = run.tickets.get(i);
+      Request part = run.parts.get(i);
+      if (ticket.assigned == null || ticket.assigned.remove(part) == null) {
+        continue;
+      }
+      if (waitingAgain.contains(part)) {
+        if (ticket.waitingRiders == 0) {
+          this.linkWaiting(this.getKey(ticket.leg), ticket);
+        }
+        ticket.waitingRiders += part.getPassengers();
+      } else {
+        this.boarded(ticket, part);
+      }
+    }
+    this.truncate(run, 0);
+  }
+
+  /**
+   * This method is used to stop tracking a request, and to stop following
+   * its riders on a first leg.
+   *
+   * @param id the id of the request.
+   * @return the tickets of the legs of the request, or an empty list if the
+   *         request is not tracked.
+   */
+  List<Ticket> remove(long id) {
+    List<Ticket> removed = new ArrayList<>(1);
+    for (Ticket ticket = this.tickets.get(id); ticket != null; ticket = this.tickets.get(id)) {
+      removed.add(this.withdraw(ticket));
+      for (Request firstLeg : ticket.getRiding()) {
+        this.riding.remove(firstLeg);
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * This method is used to stop tracking the riders of a ticket that have
+   * not boarded.
+   *
+   * @param ticket the ticket.
+   * @return the ticket.
+   */
+  private Ticket withdraw(Ticket ticket) {
+    this.removeTicket(ticket);
+    if (ticket.assigned != null) {
+      for (Map.Entry<Request, Integer> entry : ticket.assigned.entrySet()) {
+        Run run = this.getRun(entry.getValue());
+        int index = run.parts.indexOf(entry.getKey());
+        if (index >= 0) {
+          run.tickets.remove(index);
+          run.parts.remove(index);
+        }
+      }
+    }
+    return ticket;
+  }
+
+  /**
+   * This method is used to stop tracking the requests that expire at a step.
+   * The requests that have boarded or been cancelled since are left out, and
+   * riders on a first leg are still followed.
+   *
+   * @param step the step of the building.
+   * @return the tickets of the requests that expire.
+   */
+  List<Ticket> expire(int step) {
+    List<Ticket> due = this.expiries.remove(step);
+    if (due == null) {
+      return List.of();
+    }
+    List<Ticket> expired = new ArrayList<>(due.size());
+    for (Ticket ticket : due) {
+      // A ticket kept only for riders on a first leg has nothing left to expire.
+      if (ticket.tracked && (ticket.waitingRiders > 0 || !ticket.getAssigned().isEmpty())) {
+        expired.add(this.withdraw(ticket));
+      }
+    }
+    return expired;
+  }
+
+  /**
+   * This method is used to stop tracking every request.
+   */
+  void clear() {
+    for (Ticket head : this.tickets.values()) {
+      for (Ticket ticket = head; ticket != null; ticket = ticket.sameId) {
+        ticket.tracked = false;
+      }
+    }
+    this.tickets.clear();
+    this.riding.clear();
+    this.waitingHead = null;
+    this.waitingTail = null;
+    this.runs.clear();
+    this.expiries.clear();
+  }
+
+  /**
+   * This method is used to get the number of requests that can still be cancelled.
+   *
+   * @return the number of tracked requests.
+   */
+  public int size() {
+    return this.tickets.size();
+  }
+
+  /**
+   * This method is used to get the run of an elevator.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @return the run, or null if the elevator has not taken a tracked request.
+   */
+  private Run getRun(int elevatorIndex) {
+    return elevatorIndex < this.runs.size() ? this.runs.get(elevatorIndex) : null;
+  }
+
+  /**
+   * This method is used to make room for the run of an elevator.
+   *
+   * @param elevatorIndex the index of the elevator.
+   * @return the empty run of the elevator.
+   */
+  private Run addRun(int elevatorIndex) {
+    while (this.runs.size() <= elevatorIndex) {
+      this.runs.add(null);
+    }
+    Run run = new Run();
+    this.runs.set(elevatorIndex, run);
+    return run;
+  }
+
+  /**
+   * This method is used to keep only the first parts of a run.
+   *
+   * @param run  the run.
+   * @param kept the number of parts to keep.
+   */
+  private void truncate(Run run, int kept) {
+    run.tickets.subList(kept, run.tickets.size()).clear();
+    run.parts.subList(kept, run.parts.size()).clear();
+  }
+
+  /**
+   * This method is used to put a ticket at the end of the waiting tickets of a call.
+   *
+   * @param key    the key of the call.
+   * @param ticket the ticket.
+   */
+  private void linkWaiting(int key, Ticket ticket) {
+    if (this.waitingHead == null) {
+      int calls = this.numberOfFloors * this.numberOfFloors
+          * RequestPriority.values().length;
+      this.waitingHead = new Ticket[calls];
+      this.waitingTail = new Ticket[calls];
+    }
+    ticket.waitingPrevious = this.waitingTail[key];
+    ticket.waitingNext = null;
+    if (this.waitingTail[key] == null) {
+      this.waitingHead[key] = ticket;
+    } else {
+      this.waitingTail[key].waitingNext = ticket;
+    }
+    this.waitingTail[key] = ticket;
+  }
+
+  /**
+   * This method is used to take a ticket out of the waiting tickets of a call.
+   *
+   * @param key    the key of the call.
+   * @param ticket the ticket.
+   */
+  private void unlinkWaiting(int key, Ticket ticket) {
+    if (ticket.waitingPrevious == null) {
+      this.waitingHead[key] = ticket.waitingNext;
+    } else {
+      ticket.waitingPrevious.waitingNext = ticket.waitingNext;
+    }
+    if (ticket.waitingNext == null) {
+      this.waitingTail[key] = ticket.waitingPrevious;
+    } else {
+      ticket.waitingNext.waitingPrevious = ticket.waitingPrevious;
+    }
+    ticket.waitingNext = null;
+    ticket.waitingPrevious = null;
+  }
+
+  /**
+   * This method is used to stop tracking a ticket, taking it off its call
+   * and out of the map.
+   *
+   * @param ticket the ticket.
+   */
+  private void removeTicket(Ticket ticket) {
+    if (!ticket.tracked) {
+      return;
+    }
+    if (ticket.waitingRiders > 0) {
+      this.unlinkWaiting(this.getKey(ticket.leg), ticket);
+    }
+    Ticket head = this.tickets.get(ticket.id);
+    if (head == ticket) {
+      if (ticket.sameId == null) {
+        this.tickets.remove(ticket.id);
+      } else {
+        this.tickets.put(ticket.id, ticket.sameId);
+      }
+    } else {
+      while (head != null && head.sameId != ticket) {
+        head = head.sameId;
+      }
+      if (head != null) {
+        head.sameId = ticket.sameId;
+      }
+    }
+    ticket.sameId = null;
+    ticket.tracked = false;
+  }
+
+  /**
+   * This method is used to put a ticket in the map, replacing the tickets
+   * of the same id.
+   *
+   * @param ticket the ticket.
+   */
+  private void put(Ticket ticket) {
+    for (Ticket old = this.tickets.get(ticket.id); old != null;
+         old = this.tickets.get(ticket.id)) {
+      this.removeTicket(old);
+    }
+    this.tickets.put(ticket.id, ticket);
+    ticket.tracked = true;
+  }
+}
@@ -0,0 +1,200 @@
+package building;
+
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import scanerzus.Request;
+
+/**
+ * This dispatcher looks ahead before giving requests to an elevator.
+ * It builds a few candidate batches from the queue, simulates each of them on
+ * a fork of the building for a number of steps and picks the batch with the
+ * lowest predicted total wait. The candidates are simulated in parallel.
+ * <p></p>
+ * The predicted total wait is the sum, over every simulated step, of the
+ * queued requests and the outstanding stops of all elevators.
+ */
+public class RolloutDispatcher implements Dispatcher {
+  private static final int DEFAULT_HORIZON = 30;
+  private final int horizon;
+  private final Dispatcher rolloutDispatcher = new FifoDispatcher();
+
+  /**
+   * The constructor for the rollout dispatcher with the default horizon.
+   */
+  public RolloutDispatcher() {
+    this(DEFAULT_HORIZON);
+  }
+
+  /**
+   * The constructor for the rollout dispatcher.
+   *
+   * @param horizon the number of steps simulated for each candidate.
+   * @throws IllegalArgumentException if the horizon is less than 1.
+   */
+  public RolloutDispatcher(int horizon) throws IllegalArgumentException {
+    if (horizon < 1) {
+      throw new IllegalArgumentException("The horizon must be greater than 0.");
+    }
+    this.horizon = horizon;
+  }
+
+  /**
+   * This method is used to get the number of steps simulated for each candidate.
+   *
+   * @return the horizon of the rollouts.
+   */
+  public int getHorizon() {
+    return this.horizon;
+  }
+
+  @Override
+  public List<Request> selectRequests(Building building, Elevator elevator,
+                                      List<Request> requests) {
+    List<Request> servable = new ArrayList<>();
+    for (Request request : requests) {
+      if (elevator.servesFloor(request.getStartFloor())
+          && elevator.servesFloor(request.getEndFloor())) {
+        servable.add(request);
+      }
+    }
+    if (servable.isEmpty()) {
+      return servable;
+    }
+
+    int elevatorIndex = building.indexOf(elevator);
+    List<List<Request>> candidates = this.getCandidates(building, elevator, servable);
+    List<Request> best = candidates.get(0);
+
+    if (candidates.size() > 1) {
+      long[] predictedWaits = IntStream.range(0, candidates.size())
+          .parallel()
+          .mapToLong(i -> this.rollout(building, elevatorIndex, candidates.get(i)))
+          .toArray();
+      int bestIndex = 0;
+      for (int i = 1; i < predictedWaits.length; ++i) {
+        if (predictedWaits[i] < predictedWaits[bestIndex]) {
+          bestIndex = i;
+        }
+      }
+      best = candidates.get(bestIndex);
+    }
+
+    return best;
+  }
+
+  /**
+   * This method is used to build the candidate batches for an elevator.
+   * The first candidate is always the FIFO batch so that ties keep the
+   * order the requests arrived in.
+   *
+   * @param building the building the elevator belongs to.
+   * @param elevator the elevator taking requests.
+   * @param requests the requests the elevator can serve, oldest first.
+   * @return the distinct candidate batches.
+   */
+  private List<List<Request>> getCandidates(Building building, Elevator elevator,
+                                            List<Request> requests) {
+    int currentFloor = elevator.getCurrentFloor();
+    List<List<Request>> candidates = new ArrayList<>();
+
+    addCandidate(candidates, requests, building.newRouteLoad(elevator));
+    addCandidate(candidates, sorted(requests, Comparator.comparingInt(
+        request -> Math.abs(request.getStartFloor() - currentFloor))),
+        building.newRouteLoad(elevator));
+    addCandidate(candidates, sorted(requests, Comparator.comparingInt(
+        request -> Math.abs(request.getEndFloor() - request.getStartFloor()))),
+        building.newRouteLoad(elevator));
+    return candidates;
+  }
+
+  /**
+   * This method is used to add the first requests of an ordering that fit in
+   * the elevator as a candidate, unless the same batch is already a candidate.
+   *
+   * @param candidates the candidates so far.
+   * @param ordering   the requests in the order they should be taken.
+   * @param routeLoad  an empty route load for the elevator.
+   */
+  private static void addCandidate(List<List<Request>> candidates,
+                                   List<Request> ordering, RouteLoad routeLoad) {
+    List<Request> candidate = new ArrayList<>();
+    for (Request request : ordering) {
+      if (routeLoad.isFull()) {
+        break;
+      }
+      Request part = routeLoad.take(request);
+      if (part != null) {
+        candidate.add(part);
+      }
+    }
+    for (List<Request> other : candidates) {
+      if (isSameBatch(candidate, other)) {
+        return;
+      }
+    }
+    candidates.add(candidate);
+  }
+
+  /**
+   * This method is used to check if two batches take the same riders in the same order.
+   * Split parts of a call are new requests, so the batches are compared by
+   * their floors, priorities and passengers rather than by identity.
+   *
+   * @param batch the first batch.
+   * @param other the second batch.
+   * @return true if the batches are the same.
+   */
+  private static boolean isSameBatch(List<Request> batch, List<Request> other) {
+    if (batch.size() != other.size()) {
+      return false;
+    }
+    for (int i = 0; i < batch.size(); ++i) {
+      Request request = batch.get(i);
+      Request otherRequest = other.get(i);
+      if (request.getStartFloor() != otherRequest.getStartFloor()
+          || request.getEndFloor() != otherRequest.getEndFloor()
+          || request.getPriority() != otherRequest.getPriority()
+          || request.getPassengers() != otherRequest.getPassengers()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * This method is used to get a sorted copy of the requests.
+   *
+   * @param requests   the requests to sort.
+   * @param comparator the order of the copy.
+   * @return the sorted copy.
+   */
+  private static List<Request> sorted(List<Request> requests, Comparator<Request> comparator) {
+    List<Request> copy = new ArrayList<>(requests);
+    copy.sort(comparator);
+    return copy;
+  }
+
+  /**
+   * This method is used to simulate a candidate batch on a fork of the building.
+   *
+   * @param building      the building to fork.
+   * @param elevatorIndex the index of the elevator taking the batch.
+   * @param candidate     the batch given to the elevator.
+   * @return the predicted total wait.
+   */
+  private long rollout(Building building, int elevatorIndex, List<Request> candidate) {
+    Building fork = building.fork();
+    fork.setDispatcher(this.rolloutDispatcher);
+    fork.assignRequests(elevatorIndex, candidate);
+
+    long predictedWait = 0;
+    for (int i = 0; i < this.horizon; ++i) {
+      fork.step();
+      predictedWait += fork.getPendingWork();
+    }
+    return predictedWait;
+  }
+}
@@ -0,0 +1,90 @@
+package building;
+
+import building.enums.CapacityMode;
+import scanerzus.Request;
+
+/**
+ * This class is used to admit requests into a batch for one run of an elevator.
+ * <p></p>
+ * Capacity is counted in passengers, so a group request takes room for each
+ * of its people.
+ * In requestCount mode a batch holds at most capacity passengers.
+ * In routeLoad mode the load of the elevator is tracked between each pair of
+ * floors along the run: a rider is on board from the start floor to the end
+ * floor, so a request is admitted as long as the load never goes over the
+ * capacity anywhere on its part of the run. Riders that get off early make
+ * room for riders that get on later.
+ */
+public class RouteLoad {
+  private final int capacity;
+  private final CapacityMode mode;
+  private final int[] segmentLoad;
+  private int numberOfPassengers;
+
+  /**
+   * The constructor for the route load.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param capacity       the capacity of the elevator.
+   * @param mode           the capacity mode of the building.
+   */
+  public RouteLoad(int numberOfFloors, int capacity, CapacityMode mode) {
+    this.capacity = capacity;
+    this.mode = mode;
+    this.segmentLoad = mode == CapacityMode.routeLoad ? new int[numberOfFloors] : null;
+  }
+
+  /**
+   * This method is used to add a request that fits to the batch.
+   *
+   * @param request the request to add.
+   */
+  private void add(Request request) {
+    this.numberOfPassengers += request.getPassengers();
+    if (this.mode == CapacityMode.routeLoad) {
+      int from = Math.min(request.getStartFloor(), request.getEndFloor());
+      int to = Math.max(request.getStartFloor(), request.getEndFloor());
+      for (int segment = from; segment < to; ++segment) {
+        this.segmentLoad[segment] += request.getPassengers();
+      }
+    }
+  }
+
+  /**
+   * This method is used to add as many passengers of a request to the batch
+   * as there is room for.  A group that does not fit whole is split, and the
+   * rest of it is left for another elevator.
+   *
+   * @param request the request to add.
+   * @return the part of the request added, which is the request itself if it
+   *         fits whole, or null if none of it fits.
+   */
+  public Request take(Request request) {
+    int room = this.capacity - this.numberOfPassengers;
+    if (this.mode == CapacityMode.routeLoad) {
+      room = this.capacity;
+      int from = Math.min(request.getStartFloor(), request.getEndFloor());
+      int to = Math.max(request.getStartFloor(), request.getEndFloor());
+      for (int segment = from; segment < to; ++segment) {
+        room = Math.min(room, this.capacity - this.segmentLoad[segment]);
+      }
+    }
+    if (room <= 0) {
+      return null;
+    }
+    Request part = room >= request.getPassengers() ? request : request.withPassengers(room);
+    this.add(part);
+    return part;
+  }
+
+  /**
+   * This method is used to check if no more requests can be added.
+   * In routeLoad mode a batch is never known to be full, because a short
+   * request may still fit between two others.
+   *
+   * @return true if the batch is full, false otherwise.
+   */
+  public boolean isFull() {
+    return this.mode == CapacityMode.requestCount && this.numberOfPassengers >= this.capacity;
+  }
+}
@@ -0,0 +1,20 @@
+package building;
+
+import elevator.Elevator;
+
+/**
+ * This interface is used to decide how long an elevator waits at its top or
+ * bottom floor for requests before it leaves.
+ */
+public interface TerminalWaitPolicy {
+
+  /**
+   * This method is used to choose the wait of an elevator that is waiting at
+   * its top or bottom floor.  It is called once per step before the elevators move.
+   *
+   * @param building the building the elevator belongs to.
+   * @param elevator the waiting elevator.
+   * @return the steps left to wait, 0 to leave now, or -1 to keep the current wait.
+   */
+  int getTerminalWait(Building building, Elevator elevator);
+}
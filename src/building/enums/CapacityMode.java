@@ -0,0 +1,19 @@
+package building.enums;
+
+/**
+ * This enum is used to represent how the capacity of an elevator limits a batch of requests.
+ */
+public enum CapacityMode {
+  requestCount("Request Count"),
+  routeLoad("Route Load");
+  final String display;
+
+  CapacityMode(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -0,0 +1,21 @@
+package building.enums;
+
+/**
+ * This enum is used to represent a fault injected into an elevator.
+ */
+public enum ElevatorFault {
+  none("None"),
+  stuck("Stuck"),
+  doorJammed("Door Jammed"),
+  slow("Slow");
+  final String display;
+
+  ElevatorFault(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -5,6 +5,7 @@ package building.enums;
  */
 public enum ElevatorSystemStatus {
   running("Running"),
+  draining("Draining"),
   stopping("Stopping"),
   outOfService("Out Of Service");
   final String display;
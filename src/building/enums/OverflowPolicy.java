@@ -0,0 +1,21 @@
+package building.enums;
+
+/**
+ * This enum is used to represent what the building does with a request
+ * that arrives when its queue is full.
+ */
+public enum OverflowPolicy {
+  reject("Reject"),
+  dropOldest("Drop Oldest"),
+  coalesce("Coalesce");
+  final String display;
+
+  OverflowPolicy(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
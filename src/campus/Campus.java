@@ -0,0 +1,136 @@
+package campus;
+
+import building.Building;
+import building.BuildingReport;
+import building.enums.ElevatorSystemStatus;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class represents a campus of buildings.
+ * Every step, the buildings are stepped on one shared work-stealing pool
+ * with one task per building, so many buildings can be run without a loop
+ * or a thread for each of them.
+ * Buildings should only be added between steps.
+ */
+public class Campus implements CampusInterface {
+  private final ForkJoinPool pool;
+  private final List<Building> buildings = new ArrayList<>();
+  private long steps;
+
+  /**
+   * The constructor for a campus that steps its buildings on the common pool.
+   */
+  public Campus() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * The constructor for a campus.
+   *
+   * @param pool the pool the buildings are stepped on.
+   * @throws IllegalArgumentException if the pool is null.
+   */
+  public Campus(ForkJoinPool pool) throws IllegalArgumentException {
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null.");
+    }
+    this.pool = pool;
+  }
+
+  @Override
+  public int addBuilding(Building building) throws IllegalArgumentException {
+    if (building == null) {
+      throw new IllegalArgumentException("Building cannot be null.");
+    }
+    this.buildings.add(building);
+    return this.buildings.size() - 1;
+  }
+
+  @Override
+  public List<Building> getBuildings() {
+    return Collections.unmodifiableList(this.buildings);
+  }
+
+  @Override
+  public void startAll() {
+    for (Building building : this.buildings) {
+      if (building.getSystemStatus() == ElevatorSystemStatus.outOfService) {
+        building.startElevatorSystem();
+      }
+    }
+  }
+
+  @Override
+  public void stopAll() {
+    for (Building building : this.buildings) {
+      building.stopElevatorSystem();
+    }
+  }
+
+  @Override
+  public void step() {
+    if (!this.buildings.isEmpty()) {
+      Building[] snapshot = this.buildings.toArray(new Building[0]);
+      this.pool.invoke(new StepTask(snapshot, 0, snapshot.length));
+    }
+    ++this.steps;
+  }
+
+  /**
+   * This method is used to get the number of steps the campus has taken.
+   *
+   * @return the number of steps.
+   */
+  public long getSteps() {
+    return this.steps;
+  }
+
+  @Override
+  public CampusReport getCampusStatus() {
+    BuildingReport[] buildingReports = new BuildingReport[this.buildings.size()];
+    for (int i = 0; i < buildingReports.length; ++i) {
+      buildingReports[i] = this.buildings.get(i).getElevatorSystemStatus();
+    }
+    return new CampusReport(this.steps, buildingReports);
+  }
+
+  /**
+   * The task that steps a range of buildings.
+   * A range is split in half until it holds a single building, so idle
+   * workers can steal the other half.
+   */
+  private static class StepTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final Building[] buildings;
+    private final int from;
+    private final int to;
+
+    /**
+     * The constructor for the step task.
+     *
+     * @param buildings the buildings of the campus.
+     * @param from      the first building to step, inclusive.
+     * @param to        the last building to step, exclusive.
+     */
+    StepTask(Building[] buildings, int from, int to) {
+      this.buildings = buildings;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from == 1) {
+        this.buildings[this.from].step();
+        return;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      invokeAll(new StepTask(this.buildings, this.from, middle),
+          new StepTask(this.buildings, middle, this.to));
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package campus;
+
+import building.Building;
+import java.util.List;
+
+/**
+ * This interface is used to represent a campus of buildings that are stepped together.
+ */
+public interface CampusInterface {
+
+  /**
+   * This method is used to add a building to the campus.
+   *
+   * @param building the building to be added to the campus.
+   * @return the index of the building in the campus.
+   * @throws IllegalArgumentException if the building is null.
+   */
+  int addBuilding(Building building) throws IllegalArgumentException;
+
+  /**
+   * This method is used to get the buildings on the campus.
+   *
+   * @return the buildings on the campus.
+   */
+  List<Building> getBuildings();
+
+  /**
+   * This method is used to start the elevator system of every building on the campus.
+   */
+  void startAll();
+
+  /**
+   * This method is used to stop the elevator system of every building on the campus.
+   */
+  void stopAll();
+
+  /**
+   * Steps every building on the campus once.
+   * The buildings are stepped in parallel on the campus thread pool and
+   * the method returns when all of them have finished the step.
+   */
+  void step();
+
+  /**
+   * This method is used to get the campus report.
+   *
+   * @return the campus report.
+   */
+  CampusReport getCampusStatus();
+}
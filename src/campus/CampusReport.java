@@ -0,0 +1,125 @@
+package campus;
+
+import building.BuildingReport;
+import building.enums.ElevatorSystemStatus;
+
+/**
+ * This is the reporting class for the campus.
+ * It keeps the report of every building and the totals over all of them.
+ */
+public class CampusReport {
+  private final long steps;
+  private final BuildingReport[] buildingReports;
+  private final int numElevators;
+  private final int numUpRequests;
+  private final int numDownRequests;
+  private final int numRunningBuildings;
+
+  /**
+   * This constructor is used to create a new CampusReport object.
+   *
+   * @param steps           The number of steps the campus has taken.
+   * @param buildingReports The reports of the buildings on the campus.
+   */
+  public CampusReport(long steps, BuildingReport[] buildingReports) {
+    this.steps = steps;
+    this.buildingReports = buildingReports;
+    int elevators = 0;
+    int upRequests = 0;
+    int downRequests = 0;
+    int running = 0;
+    for (BuildingReport report : buildingReports) {
+      elevators += report.getNumElevators();
+      upRequests += report.getNumUpRequests();
+      downRequests += report.getNumDownRequests();
+      if (report.getSystemStatus() == ElevatorSystemStatus.running) {
+        ++running;
+      }
+    }
+    this.numElevators = elevators;
+    this.numUpRequests = upRequests;
+    this.numDownRequests = downRequests;
+    this.numRunningBuildings = running;
+  }
+
+  /**
+   * This method is used to get the number of steps the campus has taken.
+   *
+   * @return the number of steps.
+   */
+  public long getSteps() {
+    return this.steps;
+  }
+
+  /**
+   * This method is used to get the reports of the buildings.
+   *
+   * @return the reports of the buildings.
+   */
+  public BuildingReport[] getBuildingReports() {
+    return this.buildingReports;
+  }
+
+  /**
+   * This method is used to get the number of buildings on the campus.
+   *
+   * @return the number of buildings.
+   */
+  public int getNumBuildings() {
+    return this.buildingReports.length;
+  }
+
+  /**
+   * This method is used to get the number of elevators over all buildings.
+   *
+   * @return the number of elevators.
+   */
+  public int getNumElevators() {
+    return this.numElevators;
+  }
+
+  /**
+   * This method is used to get the number of queued up requests over all buildings.
+   *
+   * @return the number of up requests.
+   */
+  public int getNumUpRequests() {
+    return this.numUpRequests;
+  }
+
+  /**
+   * This method is used to get the number of queued down requests over all buildings.
+   *
+   * @return the number of down requests.
+   */
+  public int getNumDownRequests() {
+    return this.numDownRequests;
+  }
+
+  /**
+   * This method is used to get the number of buildings that are running.
+   *
+   * @return the number of running buildings.
+   */
+  public int getNumRunningBuildings() {
+    return this.numRunningBuildings;
+  }
+
+  /**
+   * Returns a string representation of the campus report.
+   *
+   * @return a string representation of the campus report.
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("Campus Report:\n");
+    builder.append("Steps: ").append(steps).append("\n");
+    builder.append("Number of Buildings: ").append(getNumBuildings()).append("\n");
+    builder.append("Running Buildings: ").append(numRunningBuildings).append("\n");
+    builder.append("Number of Elevators: ").append(numElevators).append("\n");
+    builder.append("Up Requests: ").append(numUpRequests).append("\n");
+    builder.append("Down Requests: ").append(numDownRequests).append("\n");
+    return builder.toString();
+  }
+}
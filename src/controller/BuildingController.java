@@ -30,16 +30,33 @@ public class BuildingController implements BuildingControllerInterface {
     view.setController(this);
   }
 
+  /**
+   * Set the building with the input parameter from the user.
+   * A building with the same number of floors is reconfigured in place,
+   * so its elevators and waiting requests are kept.
+   *
+   * @param numOfFloors      the number of floors in the building
+   * @param numOfElevators   the number of elevators in the building
+   * @param elevatorCapacity the capacity of the elevators
+   */
   @Override
   public void setBuilding(int numOfFloors, int numOfElevators, int elevatorCapacity) {
     try {
+      if (model != null && model.getNumberOfFloors() == numOfFloors) {
+        model.setElevators(numOfElevators, elevatorCapacity);
+        view.setBuildingView(numOfFloors, model.getNumberOfElevators());
+        return;
+      }
+      boolean firstBuilding = model == null;
       model = new Building(numOfFloors, numOfElevators, elevatorCapacity);
       view.setBuildingView(numOfFloors, numOfElevators);
-      view.addStartButtonListener(new StartButtonListener());
-      view.addStopButtonListener(new StopButtonListener());
-      view.addStepButtonListener(new StepButtonListener());
-      view.addRequestButtonListener(new RequestButtonListener());
-    } catch (IllegalArgumentException ex) {
+      if (firstBuilding) {
+        view.addStartButtonListener(new StartButtonListener());
+        view.addStopButtonListener(new StopButtonListener());
+        view.addStepButtonListener(new StepButtonListener());
+        view.addRequestButtonListener(new RequestButtonListener());
+      }
+    } catch (IllegalArgumentException | IllegalStateException ex) {
       throw new IllegalArgumentException(ex.getMessage());
     }
   }
@@ -0,0 +1,86 @@
+package elevator;
+
+/**
+ * This class is used to work out how long an elevator keeps its door open at a stop.
+ * The dwell time grows with the number of riders getting on and off at the
+ * floor, and is kept between a minimum and a maximum number of steps.
+ */
+public class DoorDwell {
+  private final int minSteps;
+  private final int maxSteps;
+  private final int passengersPerStep;
+
+  /**
+   * The constructor for the door dwell.
+   *
+   * @param minSteps          the least number of steps the door stays open.
+   * @param maxSteps          the most number of steps the door stays open.
+   * @param passengersPerStep the number of riders that get on or off in one step.
+   * @throws IllegalArgumentException if minSteps or passengersPerStep is less than 1,
+   *                                  or maxSteps is less than minSteps.
+   */
+  public DoorDwell(int minSteps, int maxSteps, int passengersPerStep)
+      throws IllegalArgumentException {
+    if (minSteps < 1) {
+      throw new IllegalArgumentException("minSteps must be at least 1");
+    }
+    if (maxSteps < minSteps) {
+      throw new IllegalArgumentException("maxSteps must be at least minSteps");
+    }
+    if (passengersPerStep < 1) {
+      throw new IllegalArgumentException("passengersPerStep must be at least 1");
+    }
+    this.minSteps = minSteps;
+    this.maxSteps = maxSteps;
+    this.passengersPerStep = passengersPerStep;
+  }
+
+  /**
+   * This method is used to create a door dwell that is the same at every stop.
+   *
+   * @param steps the number of steps the door stays open.
+   * @return the door dwell.
+   */
+  public static DoorDwell fixed(int steps) {
+    return new DoorDwell(steps, steps, 1);
+  }
+
+  /**
+   * This method is used to get the number of steps the door stays open
+   * for a number of riders getting on and off.
+   *
+   * @param passengers the number of riders getting on and off at the floor.
+   * @return the dwell time in steps.
+   */
+  public int getDwellTime(int passengers) {
+    int steps = (passengers + this.passengersPerStep - 1) / this.passengersPerStep;
+    return Math.max(this.minSteps, Math.min(this.maxSteps, steps));
+  }
+
+  /**
+   * minSteps getter.
+   *
+   * @return the least number of steps the door stays open.
+   */
+  public int getMinSteps() {
+    return this.minSteps;
+  }
+
+  /**
+   * maxSteps getter.
+   *
+   * @return the most number of steps the door stays open.
+   */
+  public int getMaxSteps() {
+    return this.maxSteps;
+  }
+
+  /**
+   * passengersPerStep getter.
+   *
+   * @return the number of riders that get on or off in one step.
+   */
+  public int getPassengersPerStep() {
+    return this.passengersPerStep;
+  }
+}
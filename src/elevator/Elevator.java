@@ -2,7 +2,11 @@ package elevator;
 
 
 import building.enums.Direction;
+import building.enums.ElevatorFault;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import scanerzus.Request;
 
 
@@ -11,14 +15,15 @@ import scanerzus.Request;
  */
 public class Elevator implements ElevatorInterface {
   /************************************************************************
-   * static value used to initialize the elevator id.
+   * static value used to initialize the id of an elevator that is
+   * created without one. Buildings give their elevators their own ids.
    ************************************************************************/
-  private static int newElevatorId = 0;
+  private static final AtomicInteger newElevatorId = new AtomicInteger();
 
   /************************************************************************
    * The id of the elevator.This is read only.
    ************************************************************************/
-  private final int id = newElevatorId++;
+  private final int id;
 
   /************************************************************************
    * The total number of floors in the building.
@@ -28,19 +33,47 @@ public class Elevator implements ElevatorInterface {
   /************************************************************************
    * The maximum number of people that can fit in the elevator.
    ************************************************************************/
-  private final int maxOccupancy;
+  private int maxOccupancy;
 
   /************************************************************************
-   * The number of steps that the door is open for.
+   * How long the door is open for, depending on the riders
+   * getting on and off.
    ************************************************************************/
-  @SuppressWarnings("FieldCanBeLocal")
-  private final int doorOpenTimeTotal = 3;
+  private final DoorDwell doorDwell;
+
+  /************************************************************************
+   * The number of floors the elevator moves in one step between stops.
+   ************************************************************************/
+  private final int speed;
+
+  /************************************************************************
+   * The change of speed per step, in floors per step.
+   ************************************************************************/
+  private final int acceleration;
 
   /************************************************************************
    * The number of steps that the elevator will wait at the top or bottom.
    ************************************************************************/
   private final int stopWaitTimeTotal = 5;
 
+  /************************************************************************
+   * The floors the elevator stops at. The elevator passes other floors.
+   ************************************************************************/
+  private final boolean[] servedFloors;
+
+  /************************************************************************
+   * The lowest and highest floors the elevator serves. The elevator
+   * turns around and takes requests on these floors.
+   ************************************************************************/
+  private final int lowestFloor;
+  private final int highestFloor;
+
+  /************************************************************************
+   * The number of floors the elevator moves in one step while it passes
+   * floors it does not serve (the express run).
+   ************************************************************************/
+  private final int expressSpeed;
+
   /************************************************************************
    * The class variables that change as the elevator runs.
    ************************************************************************/
@@ -81,8 +114,47 @@ public class Elevator implements ElevatorInterface {
   private final boolean[] floorRequests; // true if there is a request for the floor.
 
 
+  /************************************************************************
+   * The riders getting on and off at each floor on this run, and the
+   * number of riders on board.
+   ************************************************************************/
+  private final int[] boarding;
+  private final int[] alighting;
+  private int load;
+  private List<Request> runRequests = new ArrayList<>();
+
+
+  /************************************************************************
+   * The number of floors the elevator moved in the last step.
+   * This is 0 when the elevator did not move.
+   ************************************************************************/
+  private int velocity;
+
+
+  /************************************************************************
+   * The trips the elevator finished.  A trip starts when the elevator takes
+   * requests at its top or bottom floor and ends when it waits at a top or
+   * bottom floor again, ready for the next requests.
+   ************************************************************************/
+  private int trips;
+  private int tripStops;
+  private int tripTime;
+  private boolean onTrip;
+  private int currentTripStops;
+  private int currentTripTime;
+
+
   private boolean outOfService;  // start must be issued on the elevator to start it.
 
+  /************************************************************************
+   * The fault injected into the elevator.  A stuck elevator does not step,
+   * a jammed door does not close and a slow elevator only steps every
+   * SLOW_FAULT_PERIOD steps.
+   ************************************************************************/
+  private static final int SLOW_FAULT_PERIOD = 2;
+  private ElevatorFault fault = ElevatorFault.none;
+  private int faultSteps;
+
 
   /**
    * The constructor for this elevator.
@@ -97,23 +169,158 @@ public class Elevator implements ElevatorInterface {
    * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
    */
   public Elevator(int maxFloor, int maxOccupancy) {
+    this(newElevatorId.getAndIncrement(), maxFloor, maxOccupancy);
+  }
+
+  /**
+   * The constructor for this elevator with an id given by its owner.
+   * A building numbers its elevators 0, 1, 2, ... so the id of an elevator
+   * is also its index in the building.
+   *
+   * @param id           the id of the elevator, must not be negative
+   * @param maxFloor     the total number of floors in the building
+   *                     must be greater than 0
+   *                     must be less than 30 (city bylaws)
+   * @param maxOccupancy the maximum number of people that can fit in the elevator
+   *                     must be greater than 0
+   *                     must be less than 20 (fire code)
+   * @throws IllegalArgumentException if the id, maxFloor or maxOccupancy is out of range
+   */
+  public Elevator(int id, int maxFloor, int maxOccupancy) {
+    this(id, maxFloor, maxOccupancy, null, 1);
+  }
+
+  /**
+   * The constructor for an elevator that only serves some of the floors,
+   * as in a zoned elevator bank.
+   * The elevator turns around at the lowest and highest floors it serves and
+   * moves up to expressSpeed floors per step through floors it does not serve.
+   *
+   * @param id           the id of the elevator, must not be negative
+   * @param maxFloor     the total number of floors in the building
+   *                     must be greater than 0
+   *                     must be less than 30 (city bylaws)
+   * @param maxOccupancy the maximum number of people that can fit in the elevator
+   *                     must be greater than 0
+   *                     must be less than 20 (fire code)
+   * @param servedFloors the floors the elevator stops at, one entry per floor,
+   *                     or null if the elevator serves every floor
+   *                     must serve at least two floors
+   * @param expressSpeed the floors per step on an express run, must be at least 1
+   * @throws IllegalArgumentException if any of the parameters is out of range
+   */
+  public Elevator(int id, int maxFloor, int maxOccupancy,
+                  boolean[] servedFloors, int expressSpeed) {
+    this(id, maxFloor, new ElevatorSpec(maxOccupancy, 1, 3, servedFloors, expressSpeed));
+  }
+
+  /**
+   * The constructor for an elevator of a given type.
+   *
+   * @param id       the id of the elevator, must not be negative
+   * @param maxFloor the total number of floors in the building
+   *                 must be greater than 0
+   *                 must be less than 30 (city bylaws)
+   * @param spec     the type of the elevator, its occupancy must be
+   *                 between 3 and 20 (fire code)
+   * @throws IllegalArgumentException if any of the parameters is out of range
+   */
+  public Elevator(int id, int maxFloor, ElevatorSpec spec) {
+    int maxOccupancy = spec.getMaxOccupancy();
+    boolean[] servedFloors = spec.getServedFloors();
+    int expressSpeed = spec.getExpressSpeed();
+    if (id < 0) {
+      throw new IllegalArgumentException("id must not be negative");
+    }
     if (maxFloor < 3 || maxFloor > 30) {
       throw new IllegalArgumentException("maxFloor must be between 3 and 30");
     }
     if (maxOccupancy < 3 || maxOccupancy > 20) {
       throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
     }
+    if (servedFloors != null && servedFloors.length != maxFloor) {
+      throw new IllegalArgumentException("servedFloors must have one entry per floor");
+    }
+    if (servedFloors == null) {
+      servedFloors = new boolean[maxFloor];
+      Arrays.fill(servedFloors, true);
+    }
+    int lowest = -1;
+    int highest = -1;
+    for (int i = 0; i < maxFloor; i++) {
+      if (servedFloors[i]) {
+        if (lowest < 0) {
+          lowest = i;
+        }
+        highest = i;
+      }
+    }
+    if (lowest < 0 || lowest == highest) {
+      throw new IllegalArgumentException("servedFloors must have at least two floors");
+    }
 
+    this.servedFloors = servedFloors;
+    this.speed = spec.getSpeed();
+    this.acceleration = spec.getAcceleration();
+    this.doorDwell = spec.getDoorDwell();
+    this.lowestFloor = lowest;
+    this.highestFloor = highest;
+    this.expressSpeed = expressSpeed;
+
+    this.id = id;
     this.maxFloor = maxFloor;
     this.maxOccupancy = maxOccupancy;
     this.currentFloor = 0;
     this.direction = Direction.STOPPED;
     this.outOfService = true;
     this.floorRequests = new boolean[maxFloor];
+    this.boarding = new int[maxFloor];
+    this.alighting = new int[maxFloor];
     this.takingRequests = false;
 
   }
 
+  /**
+   * The copy constructor for this elevator.
+   * The copy keeps the id and the state of the original elevator but owns
+   * its own floor requests, so stepping the copy never changes the original.
+   *
+   * @param other the elevator to copy.
+   */
+  public Elevator(Elevator other) {
+    this.id = other.id;
+    this.maxFloor = other.maxFloor;
+    this.maxOccupancy = other.maxOccupancy;
+    this.servedFloors = other.servedFloors;
+    this.lowestFloor = other.lowestFloor;
+    this.highestFloor = other.highestFloor;
+    this.expressSpeed = other.expressSpeed;
+    this.speed = other.speed;
+    this.acceleration = other.acceleration;
+    this.velocity = other.velocity;
+    this.doorDwell = other.doorDwell;
+    this.takingRequests = other.takingRequests;
+    this.currentFloor = other.currentFloor;
+    this.direction = other.direction;
+    this.doorOpenTimeLeft = other.doorOpenTimeLeft;
+    this.doorClosed = other.doorClosed;
+    this.stopWaitTimeLeft = other.stopWaitTimeLeft;
+    this.floorRequests = other.floorRequests.clone();
+    this.boarding = other.boarding.clone();
+    this.alighting = other.alighting.clone();
+    this.load = other.load;
+    this.runRequests = new ArrayList<>(other.runRequests);
+    this.outOfService = other.outOfService;
+    this.trips = other.trips;
+    this.tripStops = other.tripStops;
+    this.tripTime = other.tripTime;
+    this.onTrip = other.onTrip;
+    this.currentTripStops = other.currentTripStops;
+    this.currentTripTime = other.currentTripTime;
+    this.fault = other.fault;
+    this.faultSteps = other.faultSteps;
+  }
+
   /* ***********************************************************************
    * The following methods are the getters for the ElevatorStatus interface.
    * **********************************************************************/
@@ -148,6 +355,21 @@ public class Elevator implements ElevatorInterface {
     return this.maxOccupancy;
   }
 
+  /**
+   * maxOccupancy setter.
+   * The new occupancy applies from the next requests the elevator takes.
+   *
+   * @param maxOccupancy the maximum number of people that can fit in the elevator.
+   * @throws IllegalArgumentException if the maxOccupancy is out of range.
+   */
+  @Override
+  public void setMaxOccupancy(int maxOccupancy) throws IllegalArgumentException {
+    if (maxOccupancy < 3 || maxOccupancy > 20) {
+      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
+    }
+    this.maxOccupancy = maxOccupancy;
+  }
+
   /**
    * Direction getter.
    *
@@ -166,6 +388,142 @@ public class Elevator implements ElevatorInterface {
     return this.id;
   }
 
+  /**
+   * Check if the elevator stops at a floor.
+   *
+   * @param floor the floor to check.
+   * @return true if the elevator serves the floor, false otherwise.
+   */
+  @Override
+  public boolean servesFloor(int floor) {
+    return floor >= 0 && floor < this.maxFloor && this.servedFloors[floor];
+  }
+
+  /**
+   * Get the speed of the elevator.
+   *
+   * @return the floors per step the elevator moves between stops.
+   */
+  @Override
+  public int getSpeed() {
+    return this.speed;
+  }
+
+  /**
+   * Get the acceleration of the elevator.
+   *
+   * @return the change of speed per step, in floors per step.
+   */
+  @Override
+  public int getAcceleration() {
+    return this.acceleration;
+  }
+
+  /**
+   * Get the number of floors the elevator moved in the last step.
+   *
+   * @return the velocity of the elevator.
+   */
+  @Override
+  public int getVelocity() {
+    return this.velocity;
+  }
+
+  /**
+   * Get the number of steps the door stays open at a stop for one rider.
+   *
+   * @return the door open time of the elevator.
+   */
+  @Override
+  public int getDoorOpenTime() {
+    return this.doorDwell.getDwellTime(1);
+  }
+
+  /**
+   * Estimate the number of steps to deliver a request if the elevator took it now.
+   * The estimate counts the travel to the start floor and to the end floor,
+   * speeding up and slowing down with the acceleration of the elevator,
+   * and one door opening at the start floor.
+   *
+   * @param request the request to estimate.
+   * @return the estimated number of steps.
+   */
+  @Override
+  public int estimateServiceTime(Request request) {
+    int toStart = Math.abs(request.getStartFloor() - this.currentFloor);
+    int toEnd = Math.abs(request.getEndFloor() - request.getStartFloor());
+    return this.getTravelTime(toStart) + this.getDoorOpenTime() + this.getTravelTime(toEnd);
+  }
+
+  /**
+   * Get the number of steps to travel a number of floors from a stop to a stop.
+   *
+   * @param distance the number of floors to travel.
+   * @return the number of steps.
+   */
+  private int getTravelTime(int distance) {
+    int steps = 0;
+    int position = 0;
+    int floorsPerStep = 0;
+    while (position < distance) {
+      floorsPerStep = this.limitToStop(Math.min(floorsPerStep + this.acceleration, this.speed),
+          distance - position);
+      position += floorsPerStep;
+      steps++;
+    }
+    return steps;
+  }
+
+  /**
+   * Limit the floors moved in a step so that the elevator can still slow down
+   * in time to stop at a floor.
+   *
+   * @param floorsPerStep the floors the elevator would like to move.
+   * @param stopDistance  the floors to the floor the elevator has to stop at.
+   * @return the floors to move, at least 1.
+   */
+  private int limitToStop(int floorsPerStep, int stopDistance) {
+    int move = Math.min(floorsPerStep, stopDistance);
+    while (move > 1 && stopDistance - move < this.getBrakingDistance(move)) {
+      move--;
+    }
+    return Math.max(move, 1);
+  }
+
+  /**
+   * Get the floors the elevator needs to stop after moving a number of floors in a step.
+   *
+   * @param floorsPerStep the floors moved in the step.
+   * @return the braking distance.
+   */
+  private int getBrakingDistance(int floorsPerStep) {
+    int distance = 0;
+    for (int v = floorsPerStep - this.acceleration; v > 0; v -= this.acceleration) {
+      distance += v;
+    }
+    return distance;
+  }
+
+  /**
+   * Get the lowest floor the elevator serves.
+   *
+   * @return the lowest served floor.
+   */
+  @Override
+  public int getLowestFloor() {
+    return this.lowestFloor;
+  }
+
+  /**
+   * Get the highest floor the elevator serves.
+   *
+   * @return the highest served floor.
+   */
+  @Override
+  public int getHighestFloor() {
+    return this.highestFloor;
+  }
+
   /**
    * Get the door status.
    *
@@ -186,6 +544,192 @@ public class Elevator implements ElevatorInterface {
     return this.floorRequests;
   }
 
+  /**
+   * Return the number of riders on board.
+   *
+   * @return the load of the elevator.
+   */
+  @Override
+  public int getLoad() {
+    return this.load;
+  }
+
+  /**
+   * This method is used to get the number of trips the elevator finished.
+   *
+   * @return the number of trips.
+   */
+  @Override
+  public int getTrips() {
+    return this.trips;
+  }
+
+  /**
+   * This method is used to get the number of stops the elevator made on its
+   * finished trips.
+   *
+   * @return the total stops of the trips.
+   */
+  @Override
+  public int getTripStops() {
+    return this.tripStops;
+  }
+
+  /**
+   * This method is used to get the number of steps of the finished trips,
+   * from taking requests until waiting for the next requests.
+   *
+   * @return the total steps of the trips.
+   */
+  @Override
+  public int getTripTime() {
+    return this.tripTime;
+  }
+
+  /**
+   * This method is used to get the requests of the current run that have not
+   * been delivered.  A request has boarded once the elevator has stopped at
+   * its start floor, that is when its start floor is no longer a floor request.
+   *
+   * @return the requests still waiting to board or riding the elevator.
+   */
+  @Override
+  public List<Request> getUnfinishedRequests() {
+    List<Request> unfinished = new ArrayList<>();
+    for (Request request : this.runRequests) {
+      if (this.floorRequests[request.getStartFloor()] || this.floorRequests[request.getEndFloor()]) {
+        unfinished.add(request);
+      }
+    }
+    return unfinished;
+  }
+
+  /**
+   * This method is used to withdraw a request of the current run that has not boarded.
+   * The start and end floors stay stops only if another request of the run needs them.
+   *
+   * @param request the request given to the elevator.
+   * @return true if the request was withdrawn, false if it is not in the run or has boarded.
+   */
+  @Override
+  public boolean cancelRequest(Request request) {
+    int startFloor = request.getStartFloor();
+    int endFloor = request.getEndFloor();
+    if (!this.floorRequests[startFloor]) {
+      return false;
+    }
+    boolean found = false;
+    for (int i = 0; i < this.runRequests.size(); ++i) {
+      if (this.runRequests.get(i) == request) {
+        this.runRequests.remove(i);
+        found = true;
+        break;
+      }
+    }
+    if (!found) {
+      return false;
+    }
+    this.boarding[startFloor] -= request.getPassengers();
+    this.alighting[endFloor] -= request.getPassengers();
+    if (this.boarding[startFloor] == 0 && this.alighting[startFloor] == 0) {
+      this.floorRequests[startFloor] = false;
+    }
+    if (this.boarding[endFloor] == 0 && this.alighting[endFloor] == 0) {
+      this.floorRequests[endFloor] = false;
+    }
+    return true;
+  }
+
+  /**
+   * This method is used to inject a fault into the elevator, or to repair
+   * it with ElevatorFault.none.
+   *
+   * @param fault the fault of the elevator.
+   * @throws IllegalArgumentException if the fault is null.
+   */
+  @Override
+  public void injectFault(ElevatorFault fault) throws IllegalArgumentException {
+    if (fault == null) {
+      throw new IllegalArgumentException("The fault cannot be null.");
+    }
+    this.fault = fault;
+    this.faultSteps = 0;
+  }
+
+  /**
+   * This method is used to get the fault injected into the elevator.
+   *
+   * @return the fault, or ElevatorFault.none if the elevator is healthy.
+   */
+  @Override
+  public ElevatorFault getFault() {
+    return this.fault;
+  }
+
+  /**
+   * This method is used to check if the fault of the elevator holds it
+   * in place for this step.
+   *
+   * @return true if the elevator does not step.
+   */
+  private boolean isHeldByFault() {
+    switch (this.fault) {
+      case stuck:
+        return true;
+      case doorJammed:
+        return !this.doorClosed;
+      case slow:
+        return ++this.faultSteps % SLOW_FAULT_PERIOD != 0;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * This method is used to check if the elevator is waiting at its top or
+   * bottom floor for requests.
+   *
+   * @return true if the elevator is waiting at the top or bottom.
+   */
+  @Override
+  public boolean isWaitingAtTerminal() {
+    return !this.outOfService && this.takingRequests && this.stopWaitTimeLeft > 0;
+  }
+
+  /**
+   * This method is used to get the number of steps the elevator waits at
+   * the top or bottom floor before it leaves without requests.
+   *
+   * @return the standard wait time at the top or bottom.
+   */
+  @Override
+  public int getTerminalWaitTime() {
+    return this.stopWaitTimeTotal;
+  }
+
+  /**
+   * This method is used to change how long the elevator keeps waiting at the
+   * top or bottom floor.  A wait of 0 makes the elevator leave right away.
+   *
+   * @param steps the steps left to wait.
+   * @throws IllegalArgumentException if steps is negative.
+   * @throws IllegalStateException if the elevator is not waiting at the top or bottom.
+   */
+  @Override
+  public void setTerminalWait(int steps) throws IllegalArgumentException, IllegalStateException {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Terminal wait time cannot be negative.");
+    }
+    if (!this.isWaitingAtTerminal()) {
+      throw new IllegalStateException("Elevator is not waiting at the top or bottom floor.");
+    }
+    if (steps == 0) {
+      this.leaveTerminal();
+    } else {
+      this.stopWaitTimeLeft = steps;
+    }
+  }
+
   /* ***********************************************************************
    * The following methods are the methods for the ElevatorStatus interface.
    *
@@ -208,6 +752,7 @@ public class Elevator implements ElevatorInterface {
     this.outOfService = false;
     this.takingRequests = true;
     clearStopRequests();
+    this.load = 0;
     this.doorClosed = true;
     this.doorOpenTimeLeft = 0;
     this.stopWaitTimeLeft = this.stopWaitTimeTotal;
@@ -223,6 +768,18 @@ public class Elevator implements ElevatorInterface {
    * Fourth check to see if there is a request at this floor.
    */
   public void step() {
+    // The velocity is only kept if the elevator moves again in this step.
+    int previousVelocity = this.velocity;
+    this.velocity = 0;
+    if (this.onTrip) {
+      this.currentTripTime++;
+    }
+
+    // A faulty elevator may not step at all.
+    if (this.fault != ElevatorFault.none && this.isHeldByFault()) {
+      return;
+    }
+
     // If the elevator is out of service then we need to deal with that.
     if (this.outOfService) {
       this.stepOutOfService();
@@ -245,11 +802,18 @@ public class Elevator implements ElevatorInterface {
     // We are not out of service,
     // the door is closed and we are not waiting at the top or bottom.
     // now we check to see if there is a request at this floor
-    // We open the door and set the timer for 3 steps.
+    // We open the door and set the timer for the riders getting on and off.
     if (this.floorRequests[this.currentFloor]) {
       this.doorClosed = false;
-      this.doorOpenTimeLeft = this.doorOpenTimeTotal;
+      this.doorOpenTimeLeft = this.doorDwell.getDwellTime(
+          this.boarding[this.currentFloor] + this.alighting[this.currentFloor]);
       this.floorRequests[this.currentFloor] = false;
+      this.load += this.boarding[this.currentFloor] - this.alighting[this.currentFloor];
+      this.boarding[this.currentFloor] = 0;
+      this.alighting[this.currentFloor] = 0;
+      if (this.onTrip) {
+        this.currentTripStops++;
+      }
       return;
     }
 
@@ -263,10 +827,11 @@ public class Elevator implements ElevatorInterface {
     // and the direction is down
     // we need to set the direction to up
     // we set the timer to this.stopWaitTimeTotal
-    if (this.currentFloor == 0 && this.direction == Direction.DOWN) {
+    if (this.currentFloor == this.lowestFloor && this.direction == Direction.DOWN) {
       this.direction = Direction.STOPPED;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
+      this.endTrip();
       return;
     }
 
@@ -274,10 +839,11 @@ public class Elevator implements ElevatorInterface {
     // and the direction is up
     // we need to set the direction to down
     // we set the timer to this.stopWaitTimeTotal
-    if (this.currentFloor == this.maxFloor - 1 && this.direction == Direction.UP) {
+    if (this.currentFloor == this.highestFloor && this.direction == Direction.UP) {
       this.direction = Direction.STOPPED;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
+      this.endTrip();
       return;
     }
 
@@ -287,12 +853,77 @@ public class Elevator implements ElevatorInterface {
     // there is no request at this floor
     // we are not at the top or the bottom
     // we need to move the elevator in the direction it is currently moving.
+    // The elevator moves up to speed floors per step and floors it does not
+    // serve are passed on an express run of up to expressSpeed floors.
+    // It speeds up by at most acceleration floors per step, and never moves
+    // so fast that it cannot slow down for a floor it has to stop at.
+
+    this.currentFloor = this.getNextFloor(previousVelocity);
+  }
 
-    int floorIncrement = 1;
-    if (this.direction == Direction.UP) {
-      this.currentFloor += floorIncrement;
-    } else if (this.direction == Direction.DOWN) {
-      this.currentFloor -= floorIncrement;
+  /**
+   * Get the floor the elevator reaches in this step when moving in its direction.
+   * This also sets the velocity of the elevator.
+   *
+   * @param previousVelocity the floors the elevator moved in the last step.
+   * @return the next floor of the elevator.
+   */
+  private int getNextFloor(int previousVelocity) {
+    int step = this.direction == Direction.DOWN ? -1 : 1;
+    if (this.direction == Direction.STOPPED) {
+      return this.currentFloor;
+    }
+    int maxMove = Math.max(this.speed, this.expressSpeed);
+    int floor = this.currentFloor;
+    int moved = 0;
+    while (moved < maxMove) {
+      int nextFloor = floor + step;
+      if (nextFloor < 0 || nextFloor >= this.maxFloor) {
+        break;
+      }
+      floor = nextFloor;
+      moved++;
+      if (this.floorRequests[floor] || floor == this.lowestFloor || floor == this.highestFloor) {
+        break;
+      }
+      if (this.servedFloors[floor] ? moved >= this.speed : moved >= this.expressSpeed) {
+        break;
+      }
+    }
+
+    int stopDistance = this.getStopDistance(step);
+    int move = this.limitToStop(Math.min(moved, previousVelocity + this.acceleration),
+        stopDistance);
+    this.velocity = move < stopDistance ? move : 0;
+    return this.currentFloor + step * move;
+  }
+
+  /**
+   * Get the number of floors to the next floor the elevator has to stop or
+   * turn around at in its direction.
+   *
+   * @param step 1 when moving up, -1 when moving down.
+   * @return the floors to the next stop.
+   */
+  private int getStopDistance(int step) {
+    int floor = this.currentFloor + step;
+    while (floor > 0 && floor < this.maxFloor - 1
+        && !this.floorRequests[floor]
+        && floor != this.lowestFloor && floor != this.highestFloor) {
+      floor += step;
+    }
+    return Math.abs(floor - this.currentFloor);
+  }
+
+  /**
+   * Count the trip the elevator was on as finished.
+   */
+  private void endTrip() {
+    if (this.onTrip) {
+      this.trips++;
+      this.tripStops += this.currentTripStops;
+      this.tripTime += this.currentTripTime;
+      this.onTrip = false;
     }
   }
 
@@ -315,6 +946,8 @@ public class Elevator implements ElevatorInterface {
       this.doorClosed = false;
       // we can clear the floor requests now
       this.floorRequests[this.currentFloor] = false;
+      // everyone left on board gets off at the ground floor.
+      this.load = 0;
       // we can set the elevator to stopped.
       this.direction = Direction.STOPPED;
       return;
@@ -350,12 +983,20 @@ public class Elevator implements ElevatorInterface {
   private void stepTopOrBottom() {
     this.stopWaitTimeLeft--;
     if (this.stopWaitTimeLeft == 0) {
-      this.takingRequests = false;
-      if (this.currentFloor == 0) {
-        this.direction = Direction.UP;
-      } else if (this.currentFloor == this.maxFloor - 1) {
-        this.direction = Direction.DOWN;
-      }
+      this.leaveTerminal();
+    }
+  }
+
+  /**
+   * Stop taking requests and head away from the top or bottom floor.
+   */
+  private void leaveTerminal() {
+    this.stopWaitTimeLeft = 0;
+    this.takingRequests = false;
+    if (this.currentFloor == this.lowestFloor) {
+      this.direction = Direction.UP;
+    } else if (this.currentFloor == this.highestFloor) {
+      this.direction = Direction.DOWN;
     }
   }
 
@@ -369,7 +1010,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public void processRequests(List<Request> requests) throws IllegalStateException {
-    if (this.currentFloor != 0 && this.currentFloor != this.maxFloor - 1) {
+    if (this.currentFloor != this.lowestFloor && this.currentFloor != this.highestFloor) {
       throw new IllegalStateException("Elevator cannot process requests "
           + "unless it is at the bottom or top floor.");
     }
@@ -379,9 +1020,12 @@ public class Elevator implements ElevatorInterface {
     }
 
     this.processStopRequests(requests);
-    if (this.currentFloor == 0) {
+    this.onTrip = true;
+    this.currentTripStops = 0;
+    this.currentTripTime = 0;
+    if (this.currentFloor == this.lowestFloor) {
       this.direction = Direction.UP;
-    } else if (this.currentFloor == this.maxFloor - 1) {
+    } else if (this.currentFloor == this.highestFloor) {
       this.direction = Direction.DOWN;
     }
     this.takingRequests = false;
@@ -399,6 +1043,7 @@ public class Elevator implements ElevatorInterface {
 
     this.outOfService = true;
     this.stopWaitTimeLeft = 0;
+    this.onTrip = false;
   }
 
   /**
@@ -415,10 +1060,13 @@ public class Elevator implements ElevatorInterface {
 
   private void processStopRequests(List<Request> requests) {
     clearStopRequests();
+    this.runRequests = new ArrayList<>(requests);
 
     for (Request request : requests) {
       this.floorRequests[request.getStartFloor()] = true;
       this.floorRequests[request.getEndFloor()] = true;
+      this.boarding[request.getStartFloor()] += request.getPassengers();
+      this.alighting[request.getEndFloor()] += request.getPassengers();
     }
     // if the elevator was waiting at the top or bottom
     // set the timer to 0 and we are off to the races.
@@ -431,7 +1079,10 @@ public class Elevator implements ElevatorInterface {
   private void clearStopRequests() {
     for (int i = 0; i < this.maxFloor; i++) {
       this.floorRequests[i] = false;
+      this.boarding[i] = 0;
+      this.alighting[i] = 0;
     }
+    this.runRequests.clear();
   }
 
   /**
@@ -1,6 +1,7 @@
 package elevator;
 
 import building.enums.Direction;
+import building.enums.ElevatorFault;
 import java.util.List;
 import scanerzus.Request;
 
@@ -33,6 +34,14 @@ public interface ElevatorInterface {
    */
   int getMaxOccupancy();
 
+  /**
+   * Sets the maximum number of people that can fit in the elevator,
+   * from the next requests the elevator takes.
+   *
+   * @param maxOccupancy the maximum number of people that can fit in the elevator.
+   */
+  void setMaxOccupancy(int maxOccupancy);
+
   /**
    * Returns the current floor of the elevator.
    *
@@ -49,6 +58,66 @@ public interface ElevatorInterface {
    */
   Direction getDirection();
 
+  /**
+   * Returns the number of floors the elevator moves in one step between stops.
+   *
+   * @return the speed of the elevator.
+   */
+  int getSpeed();
+
+  /**
+   * Returns the change of speed per step, in floors per step.
+   *
+   * @return the acceleration of the elevator.
+   */
+  int getAcceleration();
+
+  /**
+   * Returns the number of floors the elevator moved in the last step.
+   *
+   * @return the velocity of the elevator.
+   */
+  int getVelocity();
+
+  /**
+   * Returns the number of steps the door stays open at a stop for one rider.
+   *
+   * @return the door open time of the elevator.
+   */
+  int getDoorOpenTime();
+
+  /**
+   * Estimates the number of steps to deliver a request if the elevator took it now.
+   *
+   * @param request the request to estimate.
+   * @return the estimated number of steps.
+   */
+  int estimateServiceTime(Request request);
+
+  /**
+   * Returns whether the elevator stops at a floor.
+   *
+   * @param floor the floor to check.
+   * @return true if the elevator serves the floor, false otherwise.
+   */
+  boolean servesFloor(int floor);
+
+  /**
+   * Returns the lowest floor the elevator serves.
+   * The elevator takes up requests on this floor.
+   *
+   * @return the lowest served floor.
+   */
+  int getLowestFloor();
+
+  /**
+   * Returns the highest floor the elevator serves.
+   * The elevator takes down requests on this floor.
+   *
+   * @return the highest served floor.
+   */
+  int getHighestFloor();
+
   /**
    * Returns the door status of the elevator.
    *
@@ -63,6 +132,92 @@ public interface ElevatorInterface {
    */
   boolean[] getFloorRequests();
 
+  /**
+   * Returns the number of riders on board.
+   * The load goes up when riders get on at their start floor and down
+   * when they get off at their end floor.
+   *
+   * @return the load of the elevator.
+   */
+  int getLoad();
+
+  /**
+   * Returns the number of trips the elevator finished.
+   * A trip starts when the elevator takes requests at its top or bottom floor
+   * and ends when it waits at a top or bottom floor again.
+   *
+   * @return the number of trips.
+   */
+  int getTrips();
+
+  /**
+   * Returns the number of stops the elevator made on its finished trips.
+   *
+   * @return the total stops of the trips.
+   */
+  int getTripStops();
+
+  /**
+   * Returns the number of steps of the finished trips.
+   *
+   * @return the total steps of the trips.
+   */
+  int getTripTime();
+
+  /**
+   * Returns the requests of the current run that have not been delivered.
+   *
+   * @return the requests still waiting to board or riding the elevator.
+   */
+  List<Request> getUnfinishedRequests();
+
+  /**
+   * Withdraws a request of the current run that has not boarded.
+   *
+   * @param request the request given to the elevator.
+   * @return true if the request was withdrawn.
+   */
+  boolean cancelRequest(Request request);
+
+  /**
+   * Injects a fault into the elevator, or repairs it with ElevatorFault.none.
+   *
+   * @param fault the fault of the elevator.
+   */
+  void injectFault(ElevatorFault fault);
+
+  /**
+   * Returns the fault injected into the elevator.
+   *
+   * @return the fault, or ElevatorFault.none if the elevator is healthy.
+   */
+  ElevatorFault getFault();
+
+  /**
+   * Returns true if the elevator is waiting at its top or bottom floor for requests.
+   *
+   * @return true if the elevator is waiting at the top or bottom.
+   */
+  boolean isWaitingAtTerminal();
+
+  /**
+   * Returns the number of steps the elevator waits at the top or bottom floor
+   * before it leaves without requests.
+   *
+   * @return the standard wait time at the top or bottom.
+   */
+  int getTerminalWaitTime();
+
+  /**
+   * Sets how many more steps the elevator waits at the top or bottom floor.
+   * A wait of 0 makes the elevator leave right away.
+   *
+   * @param steps the steps left to wait.
+   * @throws IllegalArgumentException if steps is negative.
+   * @throws IllegalStateException if the elevator is not waiting at the top or bottom.
+   */
+  void setTerminalWait(int steps) throws IllegalArgumentException, IllegalStateException;
+
   /**
    * start elevator.
    * This will start the elevator if the elevator is on the ground floor.
@@ -82,7 +237,8 @@ public interface ElevatorInterface {
    * If the elevator is stopped, it will not move.
    * If the elevator arrives at a floor where it is supposed to stop then it will open
    * its doors and let people out.
-   * The elevator will stop for 3 steps then it will close its doors and move on.
+   * The elevator will stop for its door dwell time (3 steps for a standard elevator)
+   * then it will close its doors and move on.
    * If the elevator arrives at the top floor, it will wait for 5 steps then go down.
    * If the elevator arrives at the bottom floor, it will wait for 5 steps then go up.
    */
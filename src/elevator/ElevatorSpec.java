@@ -0,0 +1,200 @@
+package elevator;
+
+/**
+ * This class describes a type of elevator, such as a passenger car,
+ * a freight car or an express car.
+ * Elevators built from different specs can share a building.
+ */
+public class ElevatorSpec {
+  private final int maxOccupancy;
+  private final int speed;
+  private final DoorDwell doorDwell;
+  private final boolean[] servedFloors;
+  private final int expressSpeed;
+  private final int acceleration;
+
+  /**
+   * The constructor for the elevator spec.
+   * The elevator reaches its speed in one step and can stop from any speed.
+   *
+   * @param maxOccupancy the maximum number of people that can fit in the elevator.
+   * @param speed        the floors per step the elevator moves between stops.
+   * @param doorOpenTime the number of steps the door stays open at a stop.
+   * @param servedFloors the floors the elevator stops at, one entry per floor,
+   *                     or null if the elevator serves every floor.
+   * @param expressSpeed the floors per step while passing floors the elevator
+   *                     does not serve.
+   * @throws IllegalArgumentException if the speed, door open time or express
+   *                                  speed is less than 1.
+   */
+  public ElevatorSpec(int maxOccupancy, int speed, int doorOpenTime,
+                      boolean[] servedFloors, int expressSpeed)
+      throws IllegalArgumentException {
+    this(maxOccupancy, speed, doorOpenTime, servedFloors, expressSpeed,
+        Math.max(speed, expressSpeed));
+  }
+
+  /**
+   * The constructor for the elevator spec with an acceleration.
+   * The elevator speeds up and slows down by at most acceleration floors per
+   * step each step, so it covers several floors per step on long runs but has
+   * to slow down before it stops.
+   *
+   * @param maxOccupancy the maximum number of people that can fit in the elevator.
+   * @param speed        the maximum floors per step the elevator moves between stops.
+   * @param doorOpenTime the number of steps the door stays open at a stop.
+   * @param servedFloors the floors the elevator stops at, one entry per floor,
+   *                     or null if the elevator serves every floor.
+   * @param expressSpeed the maximum floors per step while passing floors the
+   *                     elevator does not serve.
+   * @param acceleration the change of speed per step, in floors per step.
+   * @throws IllegalArgumentException if the speed, door open time, express
+   *                                  speed or acceleration is less than 1.
+   */
+  public ElevatorSpec(int maxOccupancy, int speed, int doorOpenTime,
+                      boolean[] servedFloors, int expressSpeed, int acceleration)
+      throws IllegalArgumentException {
+    if (speed < 1) {
+      throw new IllegalArgumentException("speed must be at least 1");
+    }
+    if (doorOpenTime < 1) {
+      throw new IllegalArgumentException("doorOpenTime must be at least 1");
+    }
+    if (expressSpeed < 1) {
+      throw new IllegalArgumentException("expressSpeed must be at least 1");
+    }
+    if (acceleration < 1) {
+      throw new IllegalArgumentException("acceleration must be at least 1");
+    }
+    this.maxOccupancy = maxOccupancy;
+    this.speed = speed;
+    this.doorDwell = DoorDwell.fixed(doorOpenTime);
+    this.servedFloors = servedFloors == null ? null : servedFloors.clone();
+    this.expressSpeed = expressSpeed;
+    this.acceleration = acceleration;
+  }
+
+  /**
+   * The constructor that copies a spec with some of its fields replaced.
+   *
+   * @param other        the spec to copy.
+   * @param servedFloors the floors the elevator stops at, or null for every floor.
+   * @param expressSpeed the floors per step while passing floors it does not serve.
+   * @param doorDwell    the door dwell of the elevator.
+   */
+  private ElevatorSpec(ElevatorSpec other, boolean[] servedFloors, int expressSpeed,
+                       DoorDwell doorDwell) {
+    if (expressSpeed < 1) {
+      throw new IllegalArgumentException("expressSpeed must be at least 1");
+    }
+    this.maxOccupancy = other.maxOccupancy;
+    this.speed = other.speed;
+    this.doorDwell = doorDwell;
+    this.servedFloors = servedFloors == null ? null : servedFloors.clone();
+    this.expressSpeed = expressSpeed;
+    this.acceleration = other.acceleration;
+  }
+
+  /**
+   * This method is used to get a copy of this spec that keeps the door open
+   * longer when more riders get on and off.
+   *
+   * @param doorDwell the door dwell of the elevator.
+   * @return the spec with the door dwell.
+   * @throws IllegalArgumentException if the door dwell is null.
+   */
+  public ElevatorSpec withDoorDwell(DoorDwell doorDwell) throws IllegalArgumentException {
+    if (doorDwell == null) {
+      throw new IllegalArgumentException("doorDwell cannot be null");
+    }
+    return new ElevatorSpec(this, this.servedFloors, this.expressSpeed, doorDwell);
+  }
+
+  /**
+   * This method is used to get a copy of this spec that serves other floors.
+   *
+   * @param servedFloors the floors the elevator stops at, or null for every floor.
+   * @param expressSpeed the floors per step while passing floors it does not serve.
+   * @return the spec with the served floors.
+   * @throws IllegalArgumentException if the express speed is less than 1.
+   */
+  public ElevatorSpec withServedFloors(boolean[] servedFloors, int expressSpeed)
+      throws IllegalArgumentException {
+    return new ElevatorSpec(this, servedFloors, expressSpeed, this.doorDwell);
+  }
+
+  /**
+   * This method is used to create the spec of a standard passenger elevator
+   * that serves every floor, moves one floor per step and keeps its door
+   * open for 3 steps.
+   *
+   * @param maxOccupancy the maximum number of people that can fit in the elevator.
+   * @return the spec.
+   */
+  public static ElevatorSpec standard(int maxOccupancy) {
+    return new ElevatorSpec(maxOccupancy, 1, 3, null, 1);
+  }
+
+  /**
+   * maxOccupancy getter.
+   *
+   * @return the maximum number of people that can fit in the elevator.
+   */
+  public int getMaxOccupancy() {
+    return this.maxOccupancy;
+  }
+
+  /**
+   * speed getter.
+   *
+   * @return the floors per step the elevator moves between stops.
+   */
+  public int getSpeed() {
+    return this.speed;
+  }
+
+  /**
+   * doorOpenTime getter.
+   *
+   * @return the number of steps the door stays open at a stop for one rider.
+   */
+  public int getDoorOpenTime() {
+    return this.doorDwell.getDwellTime(1);
+  }
+
+  /**
+   * doorDwell getter.
+   *
+   * @return the door dwell of the elevator.
+   */
+  public DoorDwell getDoorDwell() {
+    return this.doorDwell;
+  }
+
+  /**
+   * servedFloors getter.
+   *
+   * @return the floors the elevator stops at, or null if it serves every floor.
+   */
+  public boolean[] getServedFloors() {
+    return this.servedFloors == null ? null : this.servedFloors.clone();
+  }
+
+  /**
+   * acceleration getter.
+   *
+   * @return the change of speed per step, in floors per step.
+   */
+  public int getAcceleration() {
+    return this.acceleration;
+  }
+
+  /**
+   * expressSpeed getter.
+   *
+   * @return the floors per step while passing floors the elevator does not serve.
+   */
+  public int getExpressSpeed() {
+    return this.expressSpeed;
+  }
+}
@@ -53,7 +53,7 @@ public class MainConsole {
       System.out.println("[start] Start the building"
           + "\n[s steps] Run steps times [CR] one step"
           + "\n[r start end] make a request "
-          + "\n[h] halt building [c] continue building [q] quit >\n");
+          + "\n[h] halt building [d] drain building [c] continue building [q] quit >\n");
 
       System.out.print("\nEnter your command: ");
       String input = scanner.nextLine().trim();
@@ -102,6 +102,9 @@ public class MainConsole {
         case "h":
           building.stopElevatorSystem();
           break;
+        case "d":
+          building.drainElevatorSystem();
+          break;
         case "q":
           running = false;
           break;
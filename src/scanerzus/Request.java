@@ -1,13 +1,25 @@
 package scanerzus;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 
 /**
  * This class represents a request to the elevator.
  * All requests have a startFloor and endFloor
  */
 public class Request implements RequestInterface {
+  /************************************************************************
+   * static value used to give each request its own id.
+   ************************************************************************/
+  private static final AtomicLong newRequestId = new AtomicLong();
+
+  private final long id;
   private final int startFloor;
   private final int endFloor;
+  private final int arrivalStep;
+  private final RequestPriority priority;
+  private final int ttl;
+  private final int passengers;
 
   /**
    * The constructor for the request.
@@ -23,8 +35,99 @@ public class Request implements RequestInterface {
    * @param endFloor   the end floor.
    */
   public Request(int startFloor, int endFloor) {
+    this(startFloor, endFloor, 0);
+  }
+
+  /**
+   * The constructor for a request that was queued at a given step.
+   * The elevator system uses the arrival step to know how long a request waited.
+   *
+   * @param startFloor  the start floor.
+   * @param endFloor    the end floor.
+   * @param arrivalStep the step the request was queued at.
+   */
+  public Request(int startFloor, int endFloor, int arrivalStep) {
+    this(startFloor, endFloor, RequestPriority.normal, arrivalStep);
+  }
+
+  /**
+   * The constructor for a request in a priority lane.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @param priority   the priority lane of the request.
+   */
+  public Request(int startFloor, int endFloor, RequestPriority priority) {
+    this(startFloor, endFloor, priority, 0);
+  }
+
+  /**
+   * The constructor for a request in a priority lane that was queued at a given step.
+   *
+   * @param startFloor  the start floor.
+   * @param endFloor    the end floor.
+   * @param priority    the priority lane of the request.
+   * @param arrivalStep the step the request was queued at.
+   */
+  public Request(int startFloor, int endFloor, RequestPriority priority, int arrivalStep) {
+    this(newRequestId.getAndIncrement(), startFloor, endFloor, priority, arrivalStep, 0, 1);
+  }
+
+  /**
+   * The constructor for a copy of a request.
+   *
+   * @param id          the id of the request.
+   * @param startFloor  the start floor.
+   * @param endFloor    the end floor.
+   * @param priority    the priority lane of the request.
+   * @param arrivalStep the step the request was queued at.
+   * @param ttl         the steps the request may wait, or 0 for no limit.
+   * @param passengers  the number of people travelling together.
+   */
+  private Request(long id, int startFloor, int endFloor, RequestPriority priority,
+                  int arrivalStep, int ttl, int passengers) {
+    this.id = id;
     this.startFloor = startFloor;
     this.endFloor = endFloor;
+    this.priority = priority;
+    this.arrivalStep = arrivalStep;
+    this.ttl = ttl;
+    this.passengers = passengers;
+  }
+
+  /**
+   * Gets a copy of the request with the same id that expires if it has not
+   * been picked up after waiting a number of steps.
+   *
+   * @param ttl the steps the request may wait, or 0 for no limit.
+   * @return the request with the time to live.
+   */
+  public Request withTtl(int ttl) {
+    return new Request(this.id, this.startFloor, this.endFloor, this.priority,
+        this.arrivalStep, ttl, this.passengers);
+  }
+
+  /**
+   * Gets a copy of the request with the same id for a group of people
+   * travelling together, such as "4 people to floor 12".
+   * Each person counts against the capacity of an elevator, and a group may be
+   * split across elevators when one elevator lacks room for all of it.
+   *
+   * @param passengers the number of people travelling together.
+   * @return the request with the passenger count.
+   */
+  public Request withPassengers(int passengers) {
+    return new Request(this.id, this.startFloor, this.endFloor, this.priority,
+        this.arrivalStep, this.ttl, passengers);
+  }
+
+  /**
+   * Gets the id of the request.  Every request gets its own id when it is created.
+   *
+   * @return the id of the request.
+   */
+  public long getId() {
+    return id;
   }
 
   /**
@@ -45,6 +148,42 @@ public class Request implements RequestInterface {
     return endFloor;
   }
 
+  /**
+   * Gets the step the request was queued at.
+   *
+   * @return the arrival step of the request.
+   */
+  public int getArrivalStep() {
+    return arrivalStep;
+  }
+
+  /**
+   * Gets the priority lane of the request.
+   *
+   * @return the priority of the request.
+   */
+  public RequestPriority getPriority() {
+    return priority;
+  }
+
+  /**
+   * Gets the steps the request may wait before it expires.
+   *
+   * @return the time to live of the request, or 0 for no limit.
+   */
+  public int getTtl() {
+    return ttl;
+  }
+
+  /**
+   * Gets the number of people travelling together on the request.
+   *
+   * @return the passenger count of the request, 1 unless it is a group.
+   */
+  public int getPassengers() {
+    return passengers;
+  }
+
   /**
    * Returns a string representation of the request.
    * This is a string of the form:
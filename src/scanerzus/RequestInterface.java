@@ -19,4 +19,39 @@ public interface RequestInterface {
    */
   int getEndFloor();
 
+  /**
+   * This is the step of the elevator system the request was queued at.
+   *
+   * @return the arrival step of the request.
+   */
+  int getArrivalStep();
+
+  /**
+   * This is the priority lane of the request.
+   *
+   * @return the priority of the request.
+   */
+  RequestPriority getPriority();
+
+  /**
+   * This is the id the request can be cancelled with.
+   *
+   * @return the id of the request.
+   */
+  long getId();
+
+  /**
+   * This is how many steps the request may wait before it expires.
+   *
+   * @return the time to live of the request, or 0 for no limit.
+   */
+  int getTtl();
+
+  /**
+   * This is how many people travel together on the request.
+   *
+   * @return the passenger count of the request.
+   */
+  int getPassengers();
+
 }
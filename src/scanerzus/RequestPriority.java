@@ -0,0 +1,22 @@
+package scanerzus;
+
+/**
+ * This enum is used to represent the priority lane of a request.
+ * The lanes are listed from the highest to the lowest priority.
+ */
+public enum RequestPriority {
+  emergency("Emergency"),
+  vip("VIP"),
+  normal("Normal"),
+  freight("Freight");
+  final String display;
+
+  RequestPriority(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -37,6 +37,7 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
   private JButton startButton;
   private JButton stopButton;
   private JButton stepButton;
+  private JButton settingsButton;
   private JButton requestButton;
   private JTextField startFloorField;
   private JTextField endFloorField;
@@ -155,6 +156,7 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
    * Update the building info panel in the view.
    */
   private void updateBuildingInfoPanel() {
+    buildingInfoPanel.removeAll();
     int numOfFloors = controller.updateBuildingFloors();
     buildingInfoPanel.add(new JLabel("Number of Floors: " + numOfFloors + "  "));
     int numOfElevators = controller.updateBuildingElevators();
@@ -163,6 +165,7 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
     buildingInfoPanel.add(new JLabel("Elevator Capacity: " + elevatorCapacity + "  "));
     statusLabel = new JLabel("Elevator System Status: " + status.toString() + "  ");
     buildingInfoPanel.add(statusLabel);
+    buildingInfoPanel.revalidate();
   }
 
   /**
@@ -203,11 +206,14 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
     startButton = new JButton("Start");
     stopButton = new JButton("Stop");
     stepButton = new JButton("Step");
+    settingsButton = new JButton("Settings");
+    settingsButton.addActionListener(e -> panelLayout.show(panel, "start"));
     setUpBuildingInfoPanel();
     buttonPanel.add(buildingInfoPanel);
     buttonPanel.add(startButton);
     buttonPanel.add(stopButton);
     buttonPanel.add(stepButton);
+    buttonPanel.add(settingsButton);
 
     mainPanel.add(buttonPanel, BorderLayout.NORTH);
   }
@@ -249,9 +255,14 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
   @Override
   public void setBuildingView(int numberOfFloors, int numberOfElevators) {
     updateBuildingInfoPanel();
-    buildingGridPanel = new BuildingGridPanel(controller.updateBuildingFloors(),
-        controller.updateBuildingElevators());
-    setUpSplitPane();
+    if (buildingGridPanel == null) {
+      buildingGridPanel = new BuildingGridPanel(controller.updateBuildingFloors(),
+          controller.updateBuildingElevators());
+      setUpSplitPane();
+    } else {
+      buildingGridPanel.setGrid(controller.updateBuildingFloors(),
+          controller.updateBuildingElevators());
+    }
     panelLayout.show(panel, "main");
     updateView();
   }
@@ -281,6 +292,12 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
     updateSystemStatus();
     updateRequestsLists(controller.updateStatus());
     statusTextArea.setText(requestsText);
+    if (controller.updateBuildingElevators() != buildingGridPanel.numOfElevators) {
+      // Elevators leave the building once they reach the ground floor.
+      updateBuildingInfoPanel();
+      buildingGridPanel.setGrid(controller.updateBuildingFloors(),
+          controller.updateBuildingElevators());
+    }
     buildingGridPanel.updateElevatorPosition();
     buildingGridPanel.repaint();
   }
@@ -340,8 +357,8 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
    * The panel for the building grid.
    */
   public class BuildingGridPanel extends JPanel {
-    private final int numOfFloors;
-    private final int numOfElevators;
+    private int numOfFloors;
+    private int numOfElevators;
     private boolean[][] elevatorFloors;
     private boolean[] elevatorDoorClose;
     private boolean[] elevatorOutOfService;
@@ -354,6 +371,17 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
      * @param numOfElevators the number of elevators
      */
     public BuildingGridPanel(int numOfFloors, int numOfElevators) {
+      setGrid(numOfFloors, numOfElevators);
+    }
+
+    /**
+     * Resize the grid to the number of floors and elevators.
+     *
+     * @param numOfFloors    the number of floors
+     * @param numOfElevators the number of elevators
+     */
+    public void setGrid(int numOfFloors, int numOfElevators) {
+      removeAll();
       this.numOfFloors = numOfFloors;
       this.numOfElevators = numOfElevators;
       this.elevatorFloors = new boolean[numOfElevators][numOfFloors];
@@ -374,6 +402,7 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
         }
       }
       setPreferredSize(new Dimension(50 * numOfElevators, 50 * numOfFloors));
+      revalidate();
     }
 
     /**
@@ -81,6 +81,16 @@ public class BuildingReportTest {
     assertEquals(0, report.getDownRequests().get(0).getEndFloor());
   }
 
+  @Test
+  public void testCoalescedRequests() {
+    BuildingReport coalesced = new BuildingReport(3, 1, 2, new ElevatorReport[0],
+        List.of(new Request(0, 2).withPassengers(3)), List.of(), ElevatorSystemStatus.running);
+    assertEquals(3, coalesced.getNumUpRequests());
+    assertEquals(0, coalesced.getNumDownRequests());
+    assertEquals("[0->2, 0->2, 0->2]", coalesced.getUpRequests().toString());
+    assertEquals(1, coalesced.getUpRequests().get(2).getPassengers());
+  }
+
   @Test
   public void testGetSystemStatus() {
     assertEquals(ElevatorSystemStatus.outOfService, report.getSystemStatus());
@@ -4,11 +4,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import building.enums.CapacityMode;
+import building.enums.ElevatorFault;
+import building.enums.OverflowPolicy;
+import elevator.DoorDwell;
 import elevator.Elevator;
+import elevator.ElevatorSpec;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import scanerzus.Request;
+import scanerzus.RequestPriority;
 
 /**
  * A JUnit test class for the Building class.
@@ -162,6 +171,18 @@ public class BuildingTest {
     building.addRequest(new Request(5, 2));
   }
 
+  /**
+   * Test addRequest() method throws an exception
+   * when the building is draining.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testAddRequestDraining() {
+    Building building = new Building(10, 5, 5);
+    building.startElevatorSystem();
+    building.drainElevatorSystem();
+    building.addRequest(new Request(5, 2));
+  }
+
   /**
    * Test addRequest() method adds a request to the building.
    */
@@ -670,4 +691,1515 @@ public class BuildingTest {
         + "Out of Service[Floor 0], Out of Service[Floor 0]]";
     assertEquals(report4, Arrays.toString(buildingReport4.getElevatorReports()));
   }
-}
\ No newline at end of file
+
+  /**
+   * Test fork() method returns a copy that can be stepped
+   * without changing the original building.
+   */
+  @Test
+  public void testForkIsIndependent() {
+    Building building = new Building(10, 3, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    building.addRequest(new Request(7, 2));
+
+    Building fork = building.fork();
+    assertEquals(building.getElevatorSystemStatus().toString(),
+        fork.getElevatorSystemStatus().toString());
+
+    for (int i = 0; i < 10; i++) {
+      fork.step();
+    }
+    fork.addRequest(new Request(1, 4));
+
+    BuildingReport buildingReport = building.getElevatorSystemStatus();
+    assertEquals("[0->5]", buildingReport.getUpRequests().toString());
+    assertEquals("[7->2]", buildingReport.getDownRequests().toString());
+    String report = "[Waiting[Floor 0, Time 5], Waiting[Floor 0, Time 5], "
+        + "Waiting[Floor 0, Time 5]]";
+    assertEquals(report, Arrays.toString(buildingReport.getElevatorReports()));
+    assertEquals("[1->4]", fork.getElevatorSystemStatus().getUpRequests().toString());
+  }
+
+  /**
+   * Test the rollout dispatcher gives every queued request to an elevator.
+   */
+  @Test
+  public void testRolloutDispatcher() {
+    Building building = new Building(10, 2, 3);
+    building.setDispatcher(new RolloutDispatcher(20));
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 9));
+    building.addRequest(new Request(0, 1));
+    building.addRequest(new Request(1, 2));
+    building.addRequest(new Request(2, 3));
+    building.addRequest(new Request(4, 5));
+    building.step();
+
+    BuildingReport buildingReport = building.getElevatorSystemStatus();
+    assertEquals("[]", buildingReport.getUpRequests().toString());
+    assertTrue(building.getElevators()[0].getFloorRequests()[1]);
+    assertTrue(building.getElevators()[1].getFloorRequests()[5]);
+  }
+
+  /**
+   * Test the elevator ids are dense and owned by each building.
+   */
+  @Test
+  public void testElevatorIdsPerBuilding() {
+    Building building = new Building(10, 4, 3);
+    Building otherBuilding = new Building(5, 2, 3);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(i, building.getElevators()[i].getElevatorId());
+      assertEquals(i, building.getElevatorSystemStatus().getElevatorReports()[i].getElevatorId());
+    }
+    for (int i = 0; i < 2; i++) {
+      assertEquals(i, otherBuilding.getElevators()[i].getElevatorId());
+    }
+  }
+
+  /**
+   * Test the zoned constructor throws an exception
+   * when a bank does not match the floors of the building.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZonedBuildingBankFloorsMismatch() {
+    new Building(10, 3, List.of(ElevatorBank.range("Low", 1, 12, 0, 5)));
+  }
+
+  /**
+   * Test the zoned constructor numbers the elevators bank by bank.
+   */
+  @Test
+  public void testZonedBuildingElevators() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 2, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    assertEquals(3, building.getNumberOfElevators());
+    assertEquals(5, building.getElevators()[1].getHighestFloor());
+    assertEquals(9, building.getElevators()[2].getHighestFloor());
+    assertFalse(building.getElevators()[2].servesFloor(3));
+  }
+
+  /**
+   * Test addRequest() method throws an exception
+   * when no bank or sky lobby connects the floors.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZonedBuildingNoRoute() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 4),
+        ElevatorBank.range("High", 1, 10, 6, 9)));
+    building.startElevatorSystem();
+    building.addRequest(new Request(2, 7));
+  }
+
+  /**
+   * Test a request between two banks is split at the sky lobby and the
+   * second leg is queued when the first elevator opens its door there.
+   */
+  @Test
+  public void testZonedBuildingSkyLobbyTransfer() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    building.startElevatorSystem();
+    building.addRequest(new Request(2, 7));
+    assertEquals("[2->5]", building.getElevatorSystemStatus().getUpRequests().toString());
+
+    for (int i = 0; i < 9; i++) {
+      building.step();
+    }
+    assertEquals("[]", building.getElevatorSystemStatus().getUpRequests().toString());
+
+    building.step();
+    assertEquals(5, building.getElevators()[0].getCurrentFloor());
+    assertEquals("[5->7]", building.getElevatorSystemStatus().getUpRequests().toString());
+  }
+
+  /**
+   * Test the second leg of a transfer can be cancelled by the id of the request.
+   */
+  @Test
+  public void testSkyLobbySecondLegCancelled() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    building.startElevatorSystem();
+    Request request = new Request(2, 7);
+    building.addRequest(request);
+    for (int i = 0; i < 30 && !building.getElevatorSystemStatus().getUpRequests()
+        .toString().equals("[5->7]"); i++) {
+      building.step();
+    }
+    assertEquals("[5->7]", building.getElevatorSystemStatus().getUpRequests().toString());
+    assertEquals(1, building.getTrackedRequests());
+
+    assertTrue(building.cancelRequest(request.getId()));
+    assertEquals(0, building.getQueueSize());
+    assertEquals(0, building.getTrackedRequests());
+    assertFalse(building.cancelRequest(request.getId()));
+  }
+
+  /**
+   * Test cancelling a request riding its first leg drops its second leg.
+   */
+  @Test
+  public void testSkyLobbyCancelWhileRiding() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    building.startElevatorSystem();
+    Request request = new Request(2, 7);
+    building.addRequest(request);
+    building.step();
+    for (int i = 0; i < 20 && building.getElevators()[0].getFloorRequests()[2]; i++) {
+      building.step();
+    }
+    assertTrue(building.getElevators()[0].getFloorRequests()[5]);
+    assertTrue(building.cancelRequest(request.getId()));
+
+    for (int i = 0; i < 20; i++) {
+      building.step();
+    }
+    assertEquals(0, building.getQueueSize());
+    assertEquals(0, building.getTrackedRequests());
+    assertFalse(building.getElevators()[1].getFloorRequests()[7]);
+    assertEquals(1, building.getCancelledRequests());
+  }
+
+  /**
+   * Test the second leg of a transfer expires by the time to live of the
+   * request, counted from when it is queued.
+   */
+  @Test
+  public void testSkyLobbySecondLegExpires() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    building.startElevatorSystem();
+    building.takeElevatorOutOfService(1);
+    building.addRequest(new Request(2, 7).withTtl(12));
+    for (int i = 0; i < 30 && !building.getElevatorSystemStatus().getUpRequests()
+        .toString().equals("[5->7]"); i++) {
+      building.step();
+    }
+    assertEquals("[5->7]", building.getElevatorSystemStatus().getUpRequests().toString());
+    assertEquals(0, building.getExpiredRequests());
+
+    for (int i = 0; i < 11; i++) {
+      building.step();
+    }
+    assertEquals(1, building.getQueueSize());
+    building.step();
+    assertEquals(0, building.getQueueSize());
+    assertEquals(1, building.getExpiredRequests());
+    assertEquals(0, building.getTrackedRequests());
+  }
+
+  /**
+   * Test riders coalesced on a first leg each keep their own second leg.
+   */
+  @Test
+  public void testSkyLobbyTransferKeepsDestinations() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    building.startElevatorSystem();
+    building.addRequest(new Request(2, 7));
+    building.addRequest(new Request(2, 9).withPassengers(2));
+    assertEquals("[2->5, 2->5, 2->5]",
+        building.getElevatorSystemStatus().getUpRequests().toString());
+
+    building.step();
+    assertEquals(0, building.getQueueSize());
+    for (int i = 0; i < 30 && building.getQueueSize() == 0; i++) {
+      building.step();
+    }
+    List<String> secondLegs = new ArrayList<>();
+    for (Request request : building.getElevatorSystemStatus().getUpRequests()) {
+      secondLegs.add(request.toString());
+    }
+    Collections.sort(secondLegs);
+    assertEquals("[5->7, 5->9, 5->9]", secondLegs.toString());
+  }
+
+  /**
+   * Test second legs released in the same step are queued in the order
+   * their first legs were given out.
+   */
+  @Test
+  public void testSkyLobbyTransfersReleasedInOrder() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    building.startElevatorSystem();
+    building.addRequest(new Request(2, 9));
+    building.addRequest(new Request(3, 7));
+    building.addRequest(new Request(1, 8));
+    building.step();
+    for (int i = 0; i < 30 && building.getQueueSize() == 0; i++) {
+      building.step();
+    }
+    assertEquals("[5->9, 5->7, 5->8]",
+        building.getElevatorSystemStatus().getUpRequests().toString());
+  }
+
+  /**
+   * Test a fork with a transfer under way leaves the transfer of the building alone.
+   */
+  @Test
+  public void testForkKeepsTransfersApart() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    building.startElevatorSystem();
+    building.addRequest(new Request(2, 7));
+    building.step();
+    Building fork = building.fork();
+    for (int i = 0; i < 60; i++) {
+      fork.step();
+    }
+    assertEquals(0, fork.getQueueSize());
+    for (int i = 0; i < 30 && building.getQueueSize() == 0; i++) {
+      building.step();
+    }
+    assertEquals("[5->7]", building.getElevatorSystemStatus().getUpRequests().toString());
+  }
+
+  /**
+   * Test the route load capacity mode admits riders that get on
+   * after earlier riders got off, and tracks the load of the elevator.
+   */
+  @Test
+  public void testRouteLoadCapacity() {
+    Building building = new Building(10, 2, 3);
+    building.setCapacityMode(CapacityMode.routeLoad);
+    assertEquals(CapacityMode.routeLoad, building.getCapacityMode());
+    building.startElevatorSystem();
+    for (int i = 0; i < 3; i++) {
+      building.addRequest(new Request(0, 2));
+      building.addRequest(new Request(2, 5));
+    }
+    building.addRequest(new Request(1, 3));
+    building.step();
+
+    Elevator[] elevators = building.getElevators();
+    assertEquals("[]", building.getElevatorSystemStatus().getUpRequests().toString());
+    assertTrue(elevators[0].getFloorRequests()[5]);
+    assertFalse(elevators[1].getFloorRequests()[5]);
+    assertTrue(elevators[1].getFloorRequests()[3]);
+    assertEquals(3, elevators[0].getLoad());
+
+    for (int i = 0; i < 6; i++) {
+      building.step();
+    }
+    assertEquals(2, elevators[0].getCurrentFloor());
+    assertEquals(3, elevators[0].getLoad());
+  }
+
+  /**
+   * Test the request count capacity mode is the default.
+   */
+  @Test
+  public void testRequestCountCapacityIsDefault() {
+    Building building = new Building(10, 2, 3);
+    assertEquals(CapacityMode.requestCount, building.getCapacityMode());
+    building.startElevatorSystem();
+    for (int i = 0; i < 3; i++) {
+      building.addRequest(new Request(0, 2));
+      building.addRequest(new Request(2, 5));
+    }
+    building.step();
+    assertTrue(building.getElevators()[1].getFloorRequests()[5]);
+  }
+
+  /**
+   * Test a building with different types of elevators gives the oldest
+   * request to the elevator that would deliver it first.
+   */
+  @Test
+  public void testHeterogeneousElevators() {
+    Building building = new Building(10, 3, List.of(
+        new ElevatorBank("Freight", 1, new ElevatorSpec(20, 1, 3, null, 1)),
+        new ElevatorBank("Express", 1, new ElevatorSpec(5, 3, 2, null, 1))));
+    assertEquals(20, building.getElevators()[0].getMaxOccupancy());
+    assertEquals(3, building.getElevators()[1].getSpeed());
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 9));
+    building.step();
+
+    assertFalse(building.getElevators()[0].getFloorRequests()[9]);
+    assertTrue(building.getElevators()[1].getFloorRequests()[9]);
+  }
+
+  /**
+   * Test a bank with an adaptive door dwell keeps the door open longer for a
+   * group than the fixed dwell of a standard bank, and keeps it when its
+   * elevators are added at run time.
+   */
+  @Test
+  public void testBankDoorDwell() {
+    Building adaptive = new Building(10, 5, List.of(
+        ElevatorBank.range("All", 1, 10, 0, 9).withDoorDwell(new DoorDwell(1, 6, 1))));
+    Building fixed = new Building(10, 5, List.of(ElevatorBank.range("All", 1, 10, 0, 9)));
+    assertEquals(6, adaptive.getBanks().get(0).getDoorDwell().getMaxSteps());
+    assertEquals(null, fixed.getBanks().get(0).getDoorDwell());
+    assertEquals(5, countDoorOpenSteps(adaptive));
+    assertEquals(3, countDoorOpenSteps(fixed));
+
+    adaptive.setNumberOfElevators(2);
+    assertEquals(5, adaptive.getElevators()[1].getMaxOccupancy());
+    assertEquals(6, adaptive.getBanks().get(0).getDoorDwell().getMaxSteps());
+  }
+
+  /**
+   * Count the steps the first elevator keeps its door open on the ground
+   * floor for a group of five riders.
+   *
+   * @param building the building.
+   * @return the steps the door is open.
+   */
+  private static int countDoorOpenSteps(Building building) {
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5).withPassengers(5));
+    int steps = 0;
+    for (int i = 0; i < 20; i++) {
+      building.step();
+      Elevator elevator = building.getElevators()[0];
+      if (elevator.getCurrentFloor() == 0 && !elevator.isDoorClosed()) {
+        ++steps;
+      } else if (steps > 0) {
+        break;
+      }
+    }
+    return steps;
+  }
+
+  /**
+   * Test the demand aware terminal wait parks idle elevators and sends one
+   * elevator away as soon as work waits at the other end.
+   */
+  @Test
+  public void testDemandAwareTerminalWait() {
+    Building building = new Building(10, 2, 3);
+    building.setTerminalWaitPolicy(new DemandAwareTerminalWait());
+    building.startElevatorSystem();
+    for (int i = 0; i < 8; i++) {
+      building.step();
+    }
+    Elevator[] elevators = building.getElevators();
+    assertTrue(elevators[0].isWaitingAtTerminal());
+    assertTrue(elevators[1].isWaitingAtTerminal());
+
+    building.addRequest(new Request(9, 0));
+    building.step();
+    assertEquals(1, elevators[0].getCurrentFloor());
+    assertEquals(0, elevators[1].getCurrentFloor());
+    assertTrue(elevators[1].isWaitingAtTerminal());
+  }
+
+  /**
+   * Test the fixed terminal wait is the default and keeps the wait of 5 steps.
+   */
+  @Test
+  public void testFixedTerminalWaitIsDefault() {
+    Building building = new Building(10, 1, 3);
+    assertTrue(building.getTerminalWaitPolicy() instanceof FixedTerminalWait);
+    building.startElevatorSystem();
+    for (int i = 0; i < 6; i++) {
+      building.step();
+    }
+    assertEquals(1, building.getElevators()[0].getCurrentFloor());
+  }
+
+  /**
+   * Test the demand model keeps the requests of each period of the day.
+   */
+  @Test
+  public void testDemandModelHistory() {
+    DemandModel demandModel = new DemandModel(10, 0.5, 10, 2);
+    demandModel.recordArrival(new Request(0, 5));
+    demandModel.recordArrival(new Request(0, 7));
+    for (int i = 0; i < 10; i++) {
+      demandModel.update();
+    }
+    assertEquals(1, demandModel.getPeriod());
+    demandModel.recordArrival(new Request(9, 0));
+    for (int i = 0; i < 10; i++) {
+      demandModel.update();
+    }
+
+    assertEquals(0, demandModel.getPeriod());
+    assertEquals(2.0, demandModel.getPredictedUpDemand(0), 0.001);
+    assertEquals(0.0, demandModel.getPredictedDownDemand(9), 0.001);
+    for (int i = 0; i < 10; i++) {
+      demandModel.update();
+    }
+    assertEquals(1.0, demandModel.getPredictedDownDemand(9), 0.001);
+  }
+
+  /**
+   * Test predictive parking sends idle elevators to the end where requests
+   * are predicted.
+   */
+  @Test
+  public void testPredictiveParking() {
+    Building building = new Building(10, 2, 3);
+    building.setDemandModel(new DemandModel(10, 0.5, 10, 1));
+    building.setTerminalWaitPolicy(new PredictiveParking());
+    building.startElevatorSystem();
+    building.addRequest(new Request(9, 0));
+    building.addRequest(new Request(9, 0));
+    for (int i = 0; i < 60; i++) {
+      building.step();
+    }
+
+    for (Elevator elevator : building.getElevators()) {
+      assertEquals(9, elevator.getCurrentFloor());
+      assertTrue(elevator.isWaitingAtTerminal());
+    }
+  }
+
+  /**
+   * Test repeated hall calls are kept as one call with a count of riders
+   * and keep the place of the first call.
+   */
+  @Test
+  public void testHallCallsCoalesce() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(4, 8));
+    building.addRequest(new Request(2, 6));
+    for (int i = 0; i < 50; i++) {
+      building.addRequest(new Request(4, 8));
+    }
+    building.addRequest(new Request(7, 1));
+
+    HallCalls hallCalls = building.getHallCalls();
+    assertEquals(51, hallCalls.getRiders(4, 8));
+    assertEquals(52, hallCalls.size(true));
+    assertTrue(hallCalls.hasCall(4, true));
+    assertFalse(hallCalls.hasCall(4, false));
+    assertEquals(7, hallCalls.nextCallFloor(5, false));
+    assertEquals("4->8", building.getElevatorSystemStatus().getUpRequests().get(50).toString());
+    assertEquals("2->6", building.getElevatorSystemStatus().getUpRequests().get(51).toString());
+
+    building.step();
+    assertEquals(48, hallCalls.getRiders(4, 8));
+    assertTrue(building.getElevators()[0].getFloorRequests()[8]);
+    assertFalse(building.getElevators()[0].getFloorRequests()[6]);
+  }
+
+  /**
+   * Test the destination dispatcher groups requests ending in the same band
+   * so the elevators make fewer stops per trip.
+   */
+  @Test
+  public void testDestinationDispatcher() {
+    Building building = new Building(10, 1, 3);
+    building.setDispatcher(new DestinationDispatcher(5));
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 8));
+    building.addRequest(new Request(0, 2));
+    building.addRequest(new Request(0, 9));
+    building.addRequest(new Request(0, 3));
+    building.step();
+
+    boolean[] floorRequests = building.getElevators()[0].getFloorRequests();
+    assertTrue(floorRequests[8]);
+    assertTrue(floorRequests[9]);
+    assertFalse(floorRequests[2]);
+    assertEquals("[0->2, 0->3]",
+        building.getElevatorSystemStatus().getUpRequests().toString());
+  }
+
+  /**
+   * Test the stops per trip and round trip time of the elevators.
+   */
+  @Test
+  public void testTripMetrics() {
+    Building building = new Building(10, 1, 3);
+    assertEquals(0, building.getStopsPerTrip(), 0.001);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    building.addRequest(new Request(0, 7));
+    for (int i = 0; i < 30; i++) {
+      building.step();
+    }
+
+    assertEquals(1, building.getElevators()[0].getTrips());
+    assertEquals(3, building.getStopsPerTrip(), 0.001);
+    assertEquals(22, building.getRoundTripTime(), 0.001);
+  }
+
+  /**
+   * Test the hall calls starting between two floors can be fetched by floor
+   * and stay correct when calls are removed.
+   */
+  @Test
+  public void testHallCallsByFloor() {
+    HallCalls hallCalls = new HallCalls(10);
+    hallCalls.add(new Request(6, 9));
+    hallCalls.add(new Request(2, 5));
+    hallCalls.add(new Request(4, 8));
+    hallCalls.add(new Request(2, 3));
+    hallCalls.add(new Request(4, 8));
+    hallCalls.add(new Request(5, 1));
+
+    assertEquals("[2->5, 2->3, 4->8, 4->8]", hallCalls.getRequests(1, 5, true).toString());
+    assertEquals("[5->1]", hallCalls.getRequests(0, 9, false).toString());
+
+    assertTrue(hallCalls.remove(new Request(2, 5)));
+    assertFalse(hallCalls.remove(new Request(2, 5)));
+    assertTrue(hallCalls.remove(new Request(4, 8)));
+    assertEquals("[2->3, 4->8, 6->9]", hallCalls.getRequests(0, 9, true).toString());
+    assertEquals("[6->9, 4->8, 2->3]", hallCalls.getRequests(true).toString());
+  }
+
+  /**
+   * Test a request that a dispatcher keeps passing over is served next once
+   * it has waited the maximum wait.
+   */
+  @Test
+  public void testMaxWait() {
+    Building building = new Building(10, 1, 3);
+    building.setDispatcher((b, elevator, requests) -> {
+      List<Request> selected = new ArrayList<>();
+      for (Request request : requests) {
+        if (request.getEndFloor() != 2) {
+          selected.add(request);
+        }
+      }
+      return selected;
+    });
+    building.setMaxWait(3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 2));
+    for (int i = 0; i < 3; i++) {
+      building.step();
+    }
+    assertFalse(building.getElevators()[0].getFloorRequests()[2]);
+    assertEquals(3, building.getOldestWaitingAge());
+
+    building.step();
+    assertTrue(building.getElevators()[0].getFloorRequests()[2]);
+    assertEquals(0, building.getOldestWaitingAge());
+  }
+
+  /**
+   * Test a repeated call keeps the arrival step of the first rider.
+   */
+  @Test
+  public void testOldestWaitingAge() {
+    Building building = new Building(10, 1, 3);
+    assertEquals(0, building.getMaxWait());
+    building.startElevatorSystem();
+    for (int i = 0; i < 6; i++) {
+      building.step();
+    }
+    building.addRequest(new Request(5, 1));
+    building.step();
+    building.addRequest(new Request(5, 1));
+    building.step();
+    assertEquals(2, building.getOldestWaitingAge());
+    assertEquals(6, building.getHallCalls().getArrivalStep(5, 1));
+  }
+
+  /**
+   * Test riders that join a waiting call keep their own arrival step, so the
+   * call waits from the oldest riders left after the first riders leave.
+   */
+  @Test
+  public void testArrivalStepsPerRiderGroup() {
+    HallCalls hallCalls = new HallCalls(10);
+    hallCalls.add(5, 1, 6, 1);
+    hallCalls.add(5, 1, 8, 2);
+    hallCalls.add(5, 1, 7, 1);
+    assertEquals(6, hallCalls.getArrivalStep(5, 1));
+    hallCalls.remove(new Request(5, 1, 6).withPassengers(2));
+    assertEquals(2, hallCalls.getRiders(5, 1));
+    assertEquals(8, hallCalls.getArrivalStep(5, 1));
+    assertEquals(8, hallCalls.getOldestArrivalStep());
+    assertEquals(8, hallCalls.getRequests(false).get(0).getArrivalStep());
+  }
+
+  /**
+   * Test the oldest riders keep leaving first while new riders keep joining
+   * the same call.
+   */
+  @Test
+  public void testArrivalStepsTurnOver() {
+    HallCalls hallCalls = new HallCalls(10);
+    for (int step = 0; step < 3; step++) {
+      hallCalls.add(5, 1, step, 1);
+    }
+    for (int step = 3; step < 20; step++) {
+      hallCalls.add(5, 1, step, 2);
+      hallCalls.remove(new Request(5, 1, step - 3).withPassengers(step < 6 ? 1 : 2));
+      assertEquals(step - 2, hallCalls.getArrivalStep(5, 1));
+    }
+    assertEquals(6, hallCalls.getRiders(5, 1));
+    hallCalls.remove(new Request(5, 1, 10).withPassengers(2));
+    assertEquals(18, hallCalls.getArrivalStep(5, 1));
+    assertEquals(18, hallCalls.getRequests(false).get(0).getArrivalStep());
+  }
+
+  /**
+   * Test a call queued again with older riders goes ahead of the newer calls.
+   */
+  @Test
+  public void testRequeuedCallIsOldest() {
+    HallCalls hallCalls = new HallCalls(10);
+    hallCalls.add(2, 5, 4, 1);
+    hallCalls.add(3, 6, 7, 1);
+    hallCalls.add(1, 8, 2, 1);
+    assertEquals(2, hallCalls.getOldestArrivalStep());
+    assertEquals("1->8", hallCalls.getOldestRequest().toString());
+    assertEquals("[1->8, 2->5, 3->6]", hallCalls.getRequests(true).toString());
+    hallCalls.add(3, 6, 1, 1);
+    assertEquals("[3->6, 3->6, 1->8, 2->5]", hallCalls.getRequests(true).toString());
+  }
+
+  /**
+   * Test the priority lanes are served from emergency down to freight and an
+   * emergency request gets an elevator to itself.
+   */
+  @Test
+  public void testPriorityLanes() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    building.addRequest(new Request(0, 6, RequestPriority.freight));
+    building.addRequest(new Request(0, 7, RequestPriority.vip));
+    building.addRequest(new Request(0, 8, RequestPriority.emergency));
+    assertEquals("[0->8, 0->7, 0->5, 0->6]",
+        building.getElevatorSystemStatus().getUpRequests().toString());
+    building.step();
+
+    boolean[] floorRequests = building.getElevators()[0].getFloorRequests();
+    assertTrue(floorRequests[8]);
+    assertFalse(floorRequests[7]);
+    assertEquals("[0->7, 0->5, 0->6]",
+        building.getElevatorSystemStatus().getUpRequests().toString());
+  }
+
+  /**
+   * Test a VIP request sends an idle elevator from the other end right away,
+   * while a normal request waits for the elevators to leave on their own.
+   */
+  @Test
+  public void testPriorityPreemptsIdleElevator() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(9, 0));
+    building.step();
+    assertEquals(0, building.getElevators()[0].getCurrentFloor());
+
+    building.addRequest(new Request(9, 1, RequestPriority.vip));
+    building.step();
+    assertEquals(1, building.getElevators()[0].getCurrentFloor());
+    assertEquals(0, building.getElevators()[1].getCurrentFloor());
+  }
+
+  /**
+   * Test draining rejects new requests, serves the waiting ones and then
+   * stops the building.
+   */
+  @Test
+  public void testDrainElevatorSystem() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    assertEquals(0, building.getDrainProgress(), 0.001);
+    building.addRequest(new Request(0, 5));
+    building.addRequest(new Request(9, 2));
+    building.step();
+    building.drainElevatorSystem();
+    assertEquals("Draining", building.getSystemStatus().toString());
+    assertEquals(0, building.getDrainProgress(), 0.001);
+
+    boolean servedDownRequest = false;
+    for (int i = 0; i < 100
+        && !building.getSystemStatus().toString().equals("Out Of Service"); i++) {
+      building.step();
+      for (Elevator elevator : building.getElevators()) {
+        servedDownRequest |= elevator.getFloorRequests()[2];
+      }
+    }
+    assertTrue(servedDownRequest);
+    assertEquals("Out Of Service", building.getSystemStatus().toString());
+    assertEquals(1, building.getDrainProgress(), 0.001);
+    for (Elevator elevator : building.getElevators()) {
+      assertEquals(0, elevator.getCurrentFloor());
+    }
+  }
+
+  /**
+   * Test draining keeps the elevators of a bank in service while riders are
+   * still on their way to transfer to it at the sky lobby.
+   */
+  @Test
+  public void testDrainWaitsForSkyLobbyTransfers() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.express("High", 1, 10, 5, 9, 5)));
+    building.startElevatorSystem();
+    building.addRequest(new Request(2, 8));
+    building.step();
+    building.drainElevatorSystem();
+
+    boolean servedSecondLeg = false;
+    for (int i = 0; i < 200; i++) {
+      building.step();
+      servedSecondLeg |= building.getElevators()[1].getFloorRequests()[8];
+    }
+    assertTrue(servedSecondLeg);
+    assertEquals("Out Of Service", building.getSystemStatus().toString());
+    assertEquals("[]", building.getElevatorSystemStatus().getUpRequests().toString());
+    assertEquals(0, building.getPendingWork());
+  }
+
+  /**
+   * Test taking an elevator out of service hands its riders to the other
+   * elevator, and the elevator can be returned to service afterwards.
+   */
+  @Test
+  public void testTakeElevatorOutOfService() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    building.addRequest(new Request(0, 7));
+    building.step();
+    building.step();
+    boolean[] floorRequests = building.getElevators()[0].getFloorRequests();
+    assertTrue(floorRequests[5] && floorRequests[7]);
+
+    building.takeElevatorOutOfService(0);
+    assertTrue(building.isInMaintenance(0));
+    assertFalse(building.isInMaintenance(1));
+    assertEquals("Running", building.getSystemStatus().toString());
+
+    boolean[] served = new boolean[10];
+    for (int i = 0; i < 100; i++) {
+      building.step();
+      Elevator other = building.getElevators()[1];
+      if (!other.isDoorClosed()) {
+        served[other.getCurrentFloor()] = true;
+      }
+      assertTrue(building.getElevators()[0].getElevatorStatus().isOutOfService());
+    }
+    assertTrue(served[5]);
+    assertTrue(served[7]);
+    assertEquals(0, building.getPendingWork());
+
+    building.returnElevatorToService(0);
+    assertFalse(building.isInMaintenance(0));
+    assertFalse(building.getElevators()[0].getElevatorStatus().isOutOfService());
+  }
+
+  /**
+   * Test an elevator in maintenance stays out of service when the building starts.
+   */
+  @Test
+  public void testMaintenanceSurvivesRestart() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.takeElevatorOutOfService(1);
+    building.stopElevatorSystem();
+    for (int i = 0; i < 20; i++) {
+      building.step();
+    }
+    building.startElevatorSystem();
+    assertFalse(building.getElevators()[0].getElevatorStatus().isOutOfService());
+    assertTrue(building.getElevators()[1].getElevatorStatus().isOutOfService());
+  }
+
+  /**
+   * Test an elevator cannot be taken out of service while the building is stopped.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testTakeElevatorOutOfServiceStopped() {
+    Building building = new Building(10, 2, 3);
+    building.takeElevatorOutOfService(0);
+  }
+
+  /**
+   * Test an elevator index outside the building is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTakeElevatorOutOfServiceInvalidIndex() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.takeElevatorOutOfService(2);
+  }
+
+  /**
+   * Test the health monitor fails over a stuck elevator, hands its requests to
+   * the other elevator and returns it to service once it is repaired.
+   */
+  @Test
+  public void testFailoverStuckElevator() {
+    Building building = new Building(10, 2, 3);
+    building.getHealthMonitor().setTimeout(4);
+    FaultInjector faultInjector = new FaultInjector();
+    faultInjector.schedule(0, 0, ElevatorFault.stuck);
+    faultInjector.schedule(30, 0, ElevatorFault.none);
+    building.setFaultInjector(faultInjector);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    building.addRequest(new Request(0, 7));
+
+    boolean[] served = new boolean[10];
+    for (int i = 0; i < 100; i++) {
+      building.step();
+      Elevator other = building.getElevators()[1];
+      if (!other.isDoorClosed()) {
+        served[other.getCurrentFloor()] = true;
+      }
+      if (i == 20) {
+        assertTrue(building.getHealthMonitor().isFailed(0));
+      }
+    }
+    assertTrue(served[5]);
+    assertTrue(served[7]);
+    assertEquals(0, building.getPendingWork());
+    assertTrue(faultInjector.isEmpty());
+
+    HealthMonitor healthMonitor = building.getHealthMonitor();
+    assertEquals(1, healthMonitor.getFailovers());
+    assertFalse(healthMonitor.isFailed(0));
+    assertFalse(building.getElevators()[0].getElevatorStatus().isOutOfService());
+    assertTrue(healthMonitor.getMeanDetectionLatency() >= 4);
+    assertTrue(healthMonitor.getMeanRecoveryTime() >= 0);
+  }
+
+  /**
+   * Test the health monitor is off by default, so a stuck elevator keeps its requests.
+   */
+  @Test
+  public void testHealthMonitorOffByDefault() {
+    Building building = new Building(10, 2, 3);
+    FaultInjector faultInjector = new FaultInjector();
+    faultInjector.schedule(0, 0, ElevatorFault.stuck);
+    building.setFaultInjector(faultInjector);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    for (int i = 0; i < 50; i++) {
+      building.step();
+    }
+    assertEquals(0, building.getHealthMonitor().getFailovers());
+    assertTrue(building.getElevators()[0].getFloorRequests()[5]);
+  }
+
+  /**
+   * Test a fault cannot be scheduled at a negative step.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testFaultInjectorNegativeStep() {
+    new FaultInjector().schedule(-1, 0, ElevatorFault.stuck);
+  }
+
+  /**
+   * Test elevators added while the building runs start at once.
+   */
+  @Test
+  public void testAddElevatorsWhileRunning() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    building.step();
+    building.setNumberOfElevators(3);
+    assertEquals(3, building.getNumberOfElevators());
+    assertEquals(3, building.getElevators().length);
+    assertEquals(3, building.getBanks().get(0).getNumberOfElevators());
+    assertTrue(building.getElevators()[0].getFloorRequests()[5]);
+    assertFalse(building.getElevators()[2].getElevatorStatus().isOutOfService());
+    assertEquals(2, building.getElevators()[2].getElevatorId());
+
+    building.addRequest(new Request(0, 8));
+    building.step();
+    assertTrue(building.getElevators()[1].getFloorRequests()[8]
+        || building.getElevators()[2].getFloorRequests()[8]);
+  }
+
+  /**
+   * Test elevators removed while the building runs hand their requests to the
+   * others and leave once they reach the ground floor.
+   */
+  @Test
+  public void testRemoveElevatorsWhileRunning() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    building.addRequest(new Request(0, 6));
+    building.addRequest(new Request(0, 7));
+    building.addRequest(new Request(0, 8));
+    building.step();
+    building.step();
+    assertTrue(building.getElevators()[1].getFloorRequests()[8]);
+    building.setNumberOfElevators(1);
+
+    boolean servedEight = false;
+    for (int i = 0; i < 100; i++) {
+      building.step();
+      Elevator first = building.getElevators()[0];
+      servedEight |= !first.isDoorClosed() && first.getCurrentFloor() == 8;
+    }
+    assertTrue(servedEight);
+    assertEquals(1, building.getElevators().length);
+    assertEquals(1, building.getNumberOfElevators());
+    assertEquals(0, building.getPendingWork());
+
+    building.setNumberOfElevators(2);
+    assertFalse(building.getElevators()[1].getElevatorStatus().isOutOfService());
+  }
+
+  /**
+   * Test a removed elevator on its way out is kept when the fleet grows again.
+   */
+  @Test
+  public void testRemovedElevatorReturns() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.setNumberOfElevators(1);
+    assertEquals(2, building.getElevators().length);
+    assertTrue(building.getElevators()[1].getElevatorStatus().isOutOfService());
+
+    building.setNumberOfElevators(2);
+    assertEquals(2, building.getElevators().length);
+    assertFalse(building.getElevators()[1].getElevatorStatus().isOutOfService());
+    building.step();
+    assertEquals(2, building.getElevators().length);
+  }
+
+  /**
+   * Test elevators removed from a building that is not running leave at once,
+   * whether it never started or has stopped.
+   */
+  @Test
+  public void testRemoveElevatorsWhileStopped() {
+    Building building = new Building(10, 4, 3);
+    building.setNumberOfElevators(2);
+    assertEquals(2, building.getElevators().length);
+    assertEquals(2, building.getNumberOfElevators());
+    assertEquals(2, building.getBanks().get(0).getNumberOfElevators());
+
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5));
+    building.step();
+    building.stopElevatorSystem();
+    for (int i = 0; i < 100
+        && !building.getSystemStatus().toString().equals("Out Of Service"); i++) {
+      building.step();
+    }
+    building.setNumberOfElevators(1);
+    assertEquals(1, building.getElevators().length);
+    assertEquals(1, building.getNumberOfElevators());
+
+    building.setNumberOfElevators(3);
+    building.startElevatorSystem();
+    assertFalse(building.getElevators()[2].getElevatorStatus().isOutOfService());
+  }
+
+  /**
+   * Test the capacity of the elevators changes while the building runs.
+   */
+  @Test
+  public void testSetElevatorCapacity() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.setElevatorCapacity(5);
+    assertEquals(5, building.getElevatorCapacity());
+    for (Elevator elevator : building.getElevators()) {
+      assertEquals(5, elevator.getMaxOccupancy());
+    }
+    building.setNumberOfElevators(3);
+    assertEquals(5, building.getElevators()[2].getMaxOccupancy());
+  }
+
+  /**
+   * Test a capacity out of range leaves the elevators as they are.
+   */
+  @Test
+  public void testSetElevatorCapacityInvalid() {
+    Building building = new Building(10, 2, 3);
+    try {
+      building.setElevatorCapacity(21);
+    } catch (IllegalArgumentException ex) {
+      assertEquals(3, building.getElevatorCapacity());
+      assertEquals(3, building.getElevators()[1].getMaxOccupancy());
+      return;
+    }
+    throw new AssertionError("The capacity should be rejected.");
+  }
+
+  /**
+   * Test a capacity out of range is rejected when every bank has a spec.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSetElevatorCapacityInvalidWithSpecs() {
+    Building building = new Building(10, 3, List.of(
+        new ElevatorBank("Freight", 1, new ElevatorSpec(20, 1, 3, null, 1))));
+    building.setElevatorCapacity(0);
+  }
+
+  /**
+   * Test changing the elevators and their capacity together leaves both as
+   * they are when either is rejected.
+   */
+  @Test
+  public void testSetElevatorsRejectsBoth() {
+    Building building = new Building(10, 2, 3);
+    try {
+      building.setElevators(0, 5);
+      throw new AssertionError("The number of elevators should be rejected.");
+    } catch (IllegalArgumentException ex) {
+      assertEquals(3, building.getElevatorCapacity());
+      assertEquals(3, building.getElevators()[0].getMaxOccupancy());
+    }
+    try {
+      building.setElevators(3, 21);
+      throw new AssertionError("The capacity should be rejected.");
+    } catch (IllegalArgumentException ex) {
+      assertEquals(2, building.getElevators().length);
+    }
+    building.setElevators(3, 5);
+    assertEquals(3, building.getElevators().length);
+    assertEquals(5, building.getElevators()[2].getMaxOccupancy());
+  }
+
+  /**
+   * Test the number of elevators cannot be changed in a building with several banks.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testSetNumberOfElevatorsZoned() {
+    Building building = new Building(10, 3, List.of(
+        ElevatorBank.range("Low", 1, 10, 0, 5),
+        ElevatorBank.range("High", 1, 10, 0, 9)));
+    building.setNumberOfElevators(3);
+  }
+
+  /**
+   * Test a full queue rejects requests under the default policy,
+   * and offer does not throw.
+   */
+  @Test
+  public void testQueueBoundReject() {
+    Building building = new Building(10, 1, 3);
+    assertFalse(building.offer(new Request(0, 5)));
+    building.startElevatorSystem();
+    building.setQueueBound(2);
+    assertEquals(OverflowPolicy.reject, building.getOverflowPolicy());
+    assertTrue(building.offer(new Request(3, 5)));
+    assertFalse(building.isQueueFull());
+    assertTrue(building.addRequest(new Request(4, 5)));
+    assertTrue(building.isQueueFull());
+    assertFalse(building.offer(new Request(6, 8)));
+    assertFalse(building.addRequest(new Request(3, 5)));
+    assertFalse(building.offer(new Request(0, 20)));
+    assertEquals(2, building.getQueueSize());
+    assertEquals(2, building.getOverflows(OverflowPolicy.reject));
+  }
+
+  /**
+   * Test a full queue drops its oldest request, lowest lane first, to make room.
+   */
+  @Test
+  public void testQueueBoundDropOldest() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.setQueueBound(2);
+    building.setOverflowPolicy(OverflowPolicy.dropOldest);
+    building.addRequest(new Request(3, 5));
+    building.addRequest(new Request(4, 6, RequestPriority.vip));
+    assertTrue(building.addRequest(new Request(6, 8)));
+    assertEquals(2, building.getQueueSize());
+    assertEquals("[4->6, 6->8]",
+        building.getElevatorSystemStatus().getUpRequests().toString());
+    assertEquals(1, building.getOverflows(OverflowPolicy.dropOldest));
+  }
+
+  /**
+   * Test a full queue never drops riders of a higher priority to make room,
+   * and turns the request away instead.
+   */
+  @Test
+  public void testQueueBoundDropOldestKeepsHigherLanes() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.setQueueBound(2);
+    building.setOverflowPolicy(OverflowPolicy.dropOldest);
+    building.addRequest(new Request(3, 5, RequestPriority.emergency));
+    building.addRequest(new Request(4, 6, RequestPriority.vip));
+    assertFalse(building.addRequest(new Request(6, 8)));
+    assertFalse(building.offer(new Request(6, 8, RequestPriority.freight)));
+    assertEquals(2, building.getQueueSize());
+    assertEquals(2, building.getOverflows(OverflowPolicy.dropOldest));
+
+    assertTrue(building.addRequest(new Request(5, 7, RequestPriority.vip)));
+    assertEquals(2, building.getQueueSize());
+    assertEquals("[3->5, 5->7]",
+        building.getElevatorSystemStatus().getUpRequests().toString());
+    assertEquals(3, building.getOverflows(OverflowPolicy.dropOldest));
+  }
+
+  /**
+   * Test a full queue only takes requests from floors that already have a call
+   * in the same direction when it coalesces.
+   */
+  @Test
+  public void testQueueBoundCoalesce() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.setQueueBound(1);
+    building.setOverflowPolicy(OverflowPolicy.coalesce);
+    building.addRequest(new Request(3, 5));
+    assertTrue(building.offer(new Request(3, 7)));
+    assertFalse(building.offer(new Request(3, 1)));
+    assertFalse(building.offer(new Request(4, 7)));
+    assertEquals(2, building.getQueueSize());
+    assertEquals(1, building.getCoalescedRequests());
+    assertEquals(2, building.getOverflows(OverflowPolicy.coalesce));
+    assertTrue(building.offer(new Request(3, 6)));
+    assertEquals(3, building.getQueueSize());
+    assertTrue(building.isQueueFull());
+  }
+
+  /**
+   * Test the queue bound cannot be negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testQueueBoundNegative() {
+    new Building(10, 1, 3).setQueueBound(-1);
+  }
+
+  /**
+   * Test a waiting request can be cancelled once by its id.
+   */
+  @Test
+  public void testCancelWaitingRequest() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    Request request = new Request(3, 5);
+    building.addRequest(request);
+    building.addRequest(new Request(3, 5));
+    assertEquals(2, building.getQueueSize());
+    assertTrue(building.cancelRequest(request.getId()));
+    assertEquals(1, building.getQueueSize());
+    assertFalse(building.cancelRequest(request.getId()));
+    assertFalse(building.cancelRequest(-1));
+    assertEquals(1, building.getCancelledRequests());
+  }
+
+  /**
+   * Test cancelling a request given to an elevator removes its floors from the
+   * stops unless another request needs them.
+   */
+  @Test
+  public void testCancelAssignedRequest() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    Request toSeven = new Request(2, 7);
+    Request fromTwo = new Request(2, 5);
+    building.addRequest(new Request(0, 5));
+    building.addRequest(toSeven);
+    building.addRequest(fromTwo);
+    building.step();
+    boolean[] floorRequests = building.getElevators()[0].getFloorRequests();
+    assertTrue(floorRequests[2] && floorRequests[5] && floorRequests[7]);
+
+    assertTrue(building.cancelRequest(toSeven.getId()));
+    floorRequests = building.getElevators()[0].getFloorRequests();
+    assertTrue(floorRequests[2]);
+    assertFalse(floorRequests[7]);
+
+    assertTrue(building.cancelRequest(fromTwo.getId()));
+    floorRequests = building.getElevators()[0].getFloorRequests();
+    assertFalse(floorRequests[2]);
+    assertTrue(floorRequests[5]);
+  }
+
+  /**
+   * Test a request stops being tracked once it boards, even when its
+   * elevator takes no more requests afterwards.
+   */
+  @Test
+  public void testBoardedRequestNotTracked() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(1, 5));
+    building.addRequest(new Request(2, 5));
+    building.step();
+    assertEquals(2, building.getTrackedRequests());
+    for (int i = 0; i < 20 && building.getElevators()[0].getFloorRequests()[1]; i++) {
+      building.step();
+    }
+    assertEquals(1, building.getTrackedRequests());
+    for (int i = 0; i < 20 && building.getElevators()[0].getFloorRequests()[2]; i++) {
+      building.step();
+    }
+    assertEquals(0, building.getTrackedRequests());
+  }
+
+  /**
+   * Test a request that has boarded cannot be cancelled.
+   */
+  @Test
+  public void testCancelBoardedRequest() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    Request request = new Request(1, 5);
+    building.addRequest(request);
+    building.step();
+    assertTrue(building.getElevators()[0].getFloorRequests()[1]);
+    for (int i = 0; i < 20 && building.getElevators()[0].getFloorRequests()[1]; i++) {
+      building.step();
+    }
+    assertTrue(building.getElevators()[0].getFloorRequests()[5]);
+    assertFalse(building.cancelRequest(request.getId()));
+    assertTrue(building.getElevators()[0].getFloorRequests()[5]);
+  }
+
+  /**
+   * Test a request with a time to live expires if no elevator picks it up in time.
+   */
+  @Test
+  public void testRequestExpires() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    Request request = new Request(9, 2).withTtl(3);
+    assertEquals(request.getId(), request.withTtl(5).getId());
+    assertTrue(request.getId() != new Request(9, 2).getId());
+    building.addRequest(request);
+    building.addRequest(new Request(8, 2));
+    building.step();
+    building.step();
+    building.step();
+    assertEquals(2, building.getQueueSize());
+    building.step();
+    assertEquals(1, building.getQueueSize());
+    assertEquals(1, building.getExpiredRequests());
+    assertFalse(building.cancelRequest(request.getId()));
+  }
+
+  /**
+   * Test the time to live cannot be negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testRequestNegativeTtl() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(9, 2).withTtl(-1));
+  }
+
+  /**
+   * Test a scheduled request is added exactly at its step.
+   */
+  @Test
+  public void testScheduledRequest() {
+    Building building = new Building(10, 1, 3);
+    assertTrue(building.scheduleRequest(new Request(9, 2), 3));
+    assertFalse(building.scheduleRequest(new Request(4, 4), 3));
+    building.startElevatorSystem();
+    building.step();
+    building.step();
+    building.step();
+    assertEquals(3, building.getCurrentStep());
+    assertEquals(0, building.getQueueSize());
+    assertEquals(1, building.getScheduledRequestCount());
+    building.step();
+    assertEquals(1, building.getQueueSize());
+    assertEquals(0, building.getScheduledRequestCount());
+  }
+
+  /**
+   * Test a scheduled request can be cancelled before it is added.
+   */
+  @Test
+  public void testCancelScheduledRequest() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    Request request = new Request(9, 2);
+    building.scheduleRequest(request, 2);
+    building.scheduleRequest(new Request(8, 2), 2);
+    assertTrue(building.cancelRequest(request.getId()));
+    assertEquals(1, building.getScheduledRequestCount());
+    for (int i = 0; i < 3; i++) {
+      building.step();
+    }
+    assertEquals(1, building.getQueueSize());
+    assertEquals("[8->2]", building.getElevatorSystemStatus().getDownRequests().toString());
+  }
+
+  /**
+   * Test a request cannot be scheduled twice, even as a copy with its own
+   * time to live, since it is cancelled by its id.
+   */
+  @Test
+  public void testScheduleRequestTwice() {
+    Building building = new Building(10, 1, 3);
+    Request request = new Request(9, 2);
+    building.scheduleRequest(request, 2);
+    try {
+      building.scheduleRequest(request.withTtl(5), 4);
+    } catch (IllegalArgumentException ex) {
+      assertEquals(1, building.getScheduledRequestCount());
+      return;
+    }
+    throw new AssertionError("The request should only be scheduled once.");
+  }
+
+  /**
+   * Test a scheduled request turned away by a full queue is counted as dropped.
+   */
+  @Test
+  public void testScheduledRequestDropped() {
+    Building building = new Building(10, 1, 3);
+    building.setQueueBound(1);
+    building.startElevatorSystem();
+    building.addRequest(new Request(9, 2));
+    building.scheduleRequest(new Request(8, 2), 0);
+    assertEquals(0, building.getDroppedScheduledRequests());
+    building.step();
+    assertEquals(1, building.getDroppedScheduledRequests());
+    assertEquals(0, building.getScheduledRequestCount());
+  }
+
+  /**
+   * Test an idle elevator heads to the other end ahead of a scheduled request.
+   */
+  @Test
+  public void testScheduledRequestPrepositions() {
+    Building building = new Building(10, 1, 3);
+    building.setTerminalWaitPolicy(new DemandAwareTerminalWait());
+    building.startElevatorSystem();
+    building.step();
+    building.step();
+    assertEquals(0, building.getElevators()[0].getCurrentFloor());
+
+    building.scheduleRequest(new Request(9, 2), 8);
+    building.step();
+    building.step();
+    assertTrue(building.getElevators()[0].getCurrentFloor() > 0);
+  }
+
+  /**
+   * Test a request cannot be scheduled for a step that has passed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testScheduledRequestPastStep() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.step();
+    building.scheduleRequest(new Request(9, 2), 0);
+  }
+
+  /**
+   * Test a group request counts each passenger against the queue and the
+   * capacity of an elevator, and is split across elevators.
+   */
+  @Test
+  public void testGroupRequestSplitsAcrossElevators() {
+    Building building = new Building(10, 2, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 5).withPassengers(5));
+    assertEquals(5, building.getQueueSize());
+    for (int i = 0; i < 5 && building.getQueueSize() > 0; i++) {
+      building.step();
+    }
+    assertEquals(0, building.getQueueSize());
+    assertTrue(building.getElevators()[0].getFloorRequests()[5]);
+    assertTrue(building.getElevators()[1].getFloorRequests()[5]);
+  }
+
+  /**
+   * Test cancelling a group request withdraws all of its passengers.
+   */
+  @Test
+  public void testCancelGroupRequest() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    Request group = new Request(3, 5).withPassengers(4);
+    building.addRequest(group);
+    building.addRequest(new Request(3, 5));
+    assertEquals(5, building.getQueueSize());
+    assertTrue(building.cancelRequest(group.getId()));
+    assertEquals(1, building.getQueueSize());
+    assertEquals(1, building.getCancelledRequests());
+  }
+
+  /**
+   * Test a group request is turned away when the queue has no room for all of it.
+   */
+  @Test
+  public void testGroupRequestQueueBound() {
+    Building building = new Building(10, 1, 3);
+    building.setQueueBound(4);
+    building.startElevatorSystem();
+    assertTrue(building.addRequest(new Request(3, 5).withPassengers(3)));
+    assertFalse(building.addRequest(new Request(4, 6).withPassengers(2)));
+    assertTrue(building.addRequest(new Request(4, 6)));
+    assertEquals(4, building.getQueueSize());
+    assertEquals(1, building.getOverflows(OverflowPolicy.reject));
+  }
+
+  /**
+   * Test a request must have at least one passenger.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testGroupRequestNoPassengers() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(3, 5).withPassengers(0));
+  }
+
+  /**
+   * Test a request cannot have more passengers than a queued request can hold.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testGroupRequestTooManyPassengers() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    building.addRequest(new Request(3, 5).withPassengers(1 << 20));
+  }
+
+  /**
+   * Test riders on the same floors are coalesced into one call, and the
+   * report still counts each of them.
+   */
+  @Test
+  public void testCoalescedRequests() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    for (int i = 0; i < 5; i++) {
+      building.addRequest(new Request(0, 5));
+    }
+    BuildingReport buildingReport = building.getElevatorSystemStatus();
+    assertEquals(5, buildingReport.getNumUpRequests());
+    assertEquals(5, buildingReport.getUpRequests().size());
+    building.step();
+    assertEquals(2, building.getElevatorSystemStatus().getNumUpRequests());
+    assertTrue(building.getElevators()[0].getFloorRequests()[5]);
+  }
+
+  /**
+   * Test a request taken by an elevator with others on its call can still be
+   * cancelled on its own.
+   */
+  @Test
+  public void testCancelCoalescedRequest() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    Request first = new Request(2, 7);
+    Request second = new Request(2, 7);
+    building.addRequest(first);
+    building.addRequest(second);
+    building.step();
+    assertEquals(0, building.getQueueSize());
+    assertTrue(building.cancelRequest(second.getId()));
+    assertTrue(building.getElevators()[0].getFloorRequests()[7]);
+    assertTrue(building.cancelRequest(first.getId()));
+    assertFalse(building.getElevators()[0].getFloorRequests()[7]);
+    assertEquals(2, building.getCancelledRequests());
+  }
+}
@@ -0,0 +1,128 @@
+package campus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the Campus class.
+ */
+public class CampusTest {
+  private ForkJoinPool pool;
+  private Campus campus;
+
+  /**
+   * Set up a campus with three buildings.
+   */
+  @Before
+  public void setUp() {
+    pool = new ForkJoinPool(2);
+    campus = new Campus(pool);
+    campus.addBuilding(new Building(10, 2, 3));
+    campus.addBuilding(new Building(11, 3, 3));
+    campus.addBuilding(new Building(5, 1, 5));
+  }
+
+  /**
+   * Shut down the pool of the campus.
+   */
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Test the constructor exception for a null pool.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPool() {
+    new Campus(null);
+  }
+
+  /**
+   * Test addBuilding() method throws an exception for a null building.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddNullBuilding() {
+    campus.addBuilding(null);
+  }
+
+  /**
+   * Test the campus report totals.
+   */
+  @Test
+  public void testCampusStatus() {
+    campus.startAll();
+    campus.getBuildings().get(0).addRequest(new Request(0, 5));
+    campus.getBuildings().get(1).addRequest(new Request(9, 1));
+    campus.getBuildings().get(1).addRequest(new Request(1, 2));
+
+    CampusReport report = campus.getCampusStatus();
+    assertEquals(3, report.getNumBuildings());
+    assertEquals(6, report.getNumElevators());
+    assertEquals(3, report.getNumRunningBuildings());
+    assertEquals(2, report.getNumUpRequests());
+    assertEquals(1, report.getNumDownRequests());
+  }
+
+  /**
+   * Test step() method steps every building the same way as stepping it alone,
+   * with different requests waiting in each building.
+   */
+  @Test
+  public void testStepMatchesBuildingStep() {
+    List<Building> alone = new ArrayList<>();
+    alone.add(new Building(10, 2, 3));
+    alone.add(new Building(11, 3, 3));
+    alone.add(new Building(5, 1, 5));
+    campus.startAll();
+    for (Building building : alone) {
+      building.startElevatorSystem();
+    }
+    List<Building> buildings = campus.getBuildings();
+    for (List<Building> copies : List.of(buildings, alone)) {
+      copies.get(0).addRequest(new Request(0, 7));
+      copies.get(0).addRequest(new Request(9, 2));
+      copies.get(1).addRequest(new Request(10, 0));
+      copies.get(1).addRequest(new Request(3, 8));
+      copies.get(1).addRequest(new Request(0, 4));
+      copies.get(2).addRequest(new Request(0, 4).withPassengers(2));
+    }
+
+    for (int i = 0; i < 25; i++) {
+      campus.step();
+      for (Building building : alone) {
+        building.step();
+      }
+    }
+
+    assertEquals(25, campus.getSteps());
+    int trips = 0;
+    for (int i = 0; i < alone.size(); i++) {
+      Building stepped = buildings.get(i);
+      Building expected = alone.get(i);
+      assertEquals(expected.getQueueSize(), stepped.getQueueSize());
+      for (int j = 0; j < expected.getElevators().length; j++) {
+        Elevator expectedElevator = expected.getElevators()[j];
+        Elevator elevator = stepped.getElevators()[j];
+        assertEquals(expectedElevator.getCurrentFloor(), elevator.getCurrentFloor());
+        assertEquals(expectedElevator.getLoad(), elevator.getLoad());
+        assertEquals(expectedElevator.getTrips(), elevator.getTrips());
+        assertEquals(expectedElevator.getTripStops(), elevator.getTripStops());
+        trips += elevator.getTrips();
+      }
+      assertEquals(expected.getElevatorSystemStatus().toString(),
+          stepped.getElevatorSystemStatus().toString());
+    }
+    assertTrue(trips > 0);
+  }
+}
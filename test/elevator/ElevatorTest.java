@@ -5,6 +5,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import building.enums.Direction;
+import building.enums.ElevatorFault;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.Before;
@@ -998,6 +999,301 @@ public class ElevatorTest {
     assertEquals(elevatorTenFloors10Capacity.isTakingRequests(), report.isTakingRequests());
   }
 
+  /**
+   * Test the constructor with an id given by the owner.
+   */
+  @Test
+  public void elevatorGivenId() {
+    System.out.println("Testing: elevatorGivenId");
+    assertEquals(7, new Elevator(7, 10, 5).getElevatorId());
+  }
+
+  /**
+   * Test the constructor exception for a negative id.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorConstructorThrowsExceptionForNegativeId() {
+    System.out.println("Testing: elevatorConstructorThrowsExceptionForNegativeId");
+    new Elevator(-1, 10, 5);
+  }
+
+  /**
+   * Test the constructor exception for fewer than two served floors.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorConstructorThrowsExceptionForOneServedFloor() {
+    System.out.println("Testing: elevatorConstructorThrowsExceptionForOneServedFloor");
+    boolean[] servedFloors = new boolean[10];
+    servedFloors[0] = true;
+    new Elevator(0, 10, 5, servedFloors, 1);
+  }
+
+  /**
+   * Test an express elevator passes the floors it does not serve
+   * and turns around at the highest floor it serves.
+   */
+  @Test
+  public void elevatorExpressRun() {
+    System.out.println("Testing: elevatorExpressRun");
+    boolean[] servedFloors = new boolean[10];
+    servedFloors[0] = true;
+    for (int i = 5; i < 8; i++) {
+      servedFloors[i] = true;
+    }
+    Elevator express = new Elevator(0, 10, 5, servedFloors, 5);
+    assertEquals(0, express.getLowestFloor());
+    assertEquals(7, express.getHighestFloor());
+    express.start();
+    for (int i = 0; i < 5; i++) {
+      express.step();
+    }
+    express.step();
+    assertEquals(5, express.getCurrentFloor());
+    express.step();
+    express.step();
+    assertEquals(7, express.getCurrentFloor());
+    express.step();
+    assertEquals("Waiting[Floor 7, Time 5]", express.toString());
+    assertTrue(express.isTakingRequests());
+  }
+
+  /**
+   * Test an elevator built from a spec moves several floors per step,
+   * stops at requested floors and keeps its door open for its own time.
+   */
+  @Test
+  public void elevatorFromSpec() {
+    System.out.println("Testing: elevatorFromSpec");
+    Elevator fast = new Elevator(0, 10, new ElevatorSpec(5, 3, 2, null, 1));
+    assertEquals(3, fast.getSpeed());
+    assertEquals(2, fast.getDoorOpenTime());
+    fast.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 4));
+    fast.processRequests(requests);
+
+    fast.step();
+    assertEquals("[0|^|O 2]< -- -- -- --  4 -- -- -- -- -->", fast.toString());
+    fast.step();
+    fast.step();
+    fast.step();
+    assertEquals(3, fast.getCurrentFloor());
+    fast.step();
+    assertEquals(4, fast.getCurrentFloor());
+    fast.step();
+    assertEquals("[4|^|O 2]< -- -- -- -- -- -- -- -- -- -->", fast.toString());
+    assertEquals(6, fast.estimateServiceTime(new Request(1, 9)));
+  }
+
+  /**
+   * Test an elevator with an acceleration speeds up on a long run
+   * and slows down in time to turn around at the top floor.
+   */
+  @Test
+  public void elevatorAcceleration() {
+    System.out.println("Testing: elevatorAcceleration");
+    Elevator elevator = new Elevator(0, 20, new ElevatorSpec(5, 4, 3, null, 1, 1));
+    assertEquals(1, elevator.getAcceleration());
+    elevator.start();
+    for (int i = 0; i < 5; i++) {
+      elevator.step();
+    }
+
+    int[] floors = {1, 3, 6, 10, 13, 16, 18, 19};
+    int[] velocities = {1, 2, 3, 4, 3, 3, 2, 0};
+    for (int i = 0; i < floors.length; i++) {
+      elevator.step();
+      assertEquals(floors[i], elevator.getCurrentFloor());
+      assertEquals(velocities[i], elevator.getVelocity());
+    }
+    elevator.step();
+    assertEquals("Waiting[Floor 19, Time 5]", elevator.toString());
+    assertEquals(8 + 3, elevator.estimateServiceTime(new Request(19, 0)));
+  }
+
+  /**
+   * Test the door dwell time follows the riders getting on and off.
+   */
+  @Test
+  public void elevatorAdaptiveDoorDwell() {
+    System.out.println("Testing: elevatorAdaptiveDoorDwell");
+    DoorDwell doorDwell = new DoorDwell(1, 4, 2);
+    assertEquals(1, doorDwell.getDwellTime(0));
+    assertEquals(3, doorDwell.getDwellTime(5));
+    assertEquals(4, doorDwell.getDwellTime(20));
+
+    Elevator elevator = new Elevator(0, 10,
+        ElevatorSpec.standard(10).withDoorDwell(doorDwell));
+    elevator.start();
+    List<Request> requests = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      requests.add(new Request(0, 4));
+    }
+    requests.add(new Request(0, 5));
+    requests.add(new Request(2, 5));
+    elevator.processRequests(requests);
+
+    elevator.step();
+    assertEquals("[0|^|O 2]< -- --  2 --  4  5 -- -- -- -->", elevator.toString());
+    for (int i = 0; i < 5; i++) {
+      elevator.step();
+    }
+    assertEquals("[2|^|O 1]< -- -- -- --  4  5 -- -- -- -->", elevator.toString());
+  }
+
+  /**
+   * Test the wait at the top or bottom floor can be changed while waiting.
+   */
+  @Test
+  public void elevatorTerminalWait() {
+    System.out.println("Testing: elevatorTerminalWait");
+    Elevator elevator = new Elevator(0, 10, 3);
+    elevator.start();
+    assertTrue(elevator.isWaitingAtTerminal());
+    assertEquals(5, elevator.getTerminalWaitTime());
+
+    elevator.setTerminalWait(8);
+    for (int i = 0; i < 7; i++) {
+      elevator.step();
+    }
+    assertTrue(elevator.isWaitingAtTerminal());
+    assertEquals(0, elevator.getCurrentFloor());
+
+    elevator.setTerminalWait(0);
+    assertFalse(elevator.isWaitingAtTerminal());
+    assertFalse(elevator.isTakingRequests());
+    elevator.step();
+    assertEquals(1, elevator.getCurrentFloor());
+  }
+
+  /**
+   * Test the wait cannot be negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorTerminalWaitNegative() {
+    System.out.println("Testing: elevatorTerminalWaitNegative");
+    Elevator elevator = new Elevator(0, 10, 3);
+    elevator.start();
+    elevator.setTerminalWait(-1);
+  }
+
+  /**
+   * Test the wait cannot be changed when the elevator is not waiting.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorTerminalWaitNotWaiting() {
+    System.out.println("Testing: elevatorTerminalWaitNotWaiting");
+    Elevator elevator = new Elevator(0, 10, 3);
+    elevator.start();
+    elevator.setTerminalWait(0);
+    elevator.setTerminalWait(3);
+  }
+
+  /**
+   * Test a stuck elevator does not move until it is repaired.
+   */
+  @Test
+  public void elevatorStuckFault() {
+    System.out.println("Testing: elevatorStuckFault");
+    Elevator elevator = new Elevator(0, 10, 3);
+    elevator.start();
+    elevator.setTerminalWait(0);
+    elevator.processRequests(List.of(new Request(0, 5)));
+    while (elevator.getCurrentFloor() == 0) {
+      elevator.step();
+    }
+    assertEquals(1, elevator.getCurrentFloor());
+    elevator.injectFault(ElevatorFault.stuck);
+    assertEquals(ElevatorFault.stuck, elevator.getFault());
+    for (int i = 0; i < 10; i++) {
+      elevator.step();
+    }
+    assertEquals(1, elevator.getCurrentFloor());
+    elevator.injectFault(ElevatorFault.none);
+    elevator.step();
+    assertEquals(2, elevator.getCurrentFloor());
+  }
+
+  /**
+   * Test a jammed door stays open and a slow elevator moves every other step.
+   */
+  @Test
+  public void elevatorDoorJammedAndSlowFaults() {
+    System.out.println("Testing: elevatorDoorJammedAndSlowFaults");
+    Elevator elevator = new Elevator(0, 10, 3);
+    elevator.start();
+    elevator.setTerminalWait(0);
+    elevator.processRequests(List.of(new Request(0, 5)));
+    elevator.injectFault(ElevatorFault.doorJammed);
+    elevator.step();
+    assertFalse(elevator.isDoorClosed());
+    for (int i = 0; i < 10; i++) {
+      elevator.step();
+    }
+    assertFalse(elevator.isDoorClosed());
+    assertEquals(0, elevator.getCurrentFloor());
+
+    elevator.injectFault(ElevatorFault.none);
+    while (!elevator.isDoorClosed()) {
+      elevator.step();
+    }
+    elevator.injectFault(ElevatorFault.slow);
+    elevator.step();
+    elevator.step();
+    elevator.step();
+    elevator.step();
+    assertEquals(2, elevator.getCurrentFloor());
+  }
+
+  /**
+   * Test the fault cannot be null.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorNullFault() {
+    System.out.println("Testing: elevatorNullFault");
+    Elevator elevator = new Elevator(0, 10, 3);
+    elevator.injectFault(null);
+  }
+
+  /**
+   * Test every passenger of a group request boards and gets off.
+   */
+  @Test
+  public void elevatorGroupRequestLoad() {
+    System.out.println("Testing: elevatorGroupRequestLoad");
+    Elevator elevator = new Elevator(0, 10, 5);
+    elevator.start();
+    elevator.setTerminalWait(0);
+    elevator.processRequests(List.of(new Request(0, 3).withPassengers(4), new Request(0, 5)));
+    while (elevator.getCurrentFloor() == 0) {
+      elevator.step();
+    }
+    assertEquals(5, elevator.getLoad());
+    while (elevator.getCurrentFloor() < 4) {
+      elevator.step();
+    }
+    assertEquals(1, elevator.getLoad());
+  }
+
+  /**
+   * Test the copy constructor keeps the state but not the floor requests array.
+   */
+  @Test
+  public void elevatorCopyIsIndependent() {
+    System.out.println("Testing: elevatorCopyIsIndependent");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.processRequests(upTenRequests);
+
+    Elevator copy = new Elevator(elevatorTenFloors10Capacity);
+    assertEquals(elevatorTenFloors10Capacity.getElevatorId(), copy.getElevatorId());
+    assertEquals(elevatorTenFloors10Capacity.toString(), copy.toString());
+
+    copy.step();
+    assertEquals("[0|^|C  ]<  0  1  2  3 --  5  6 -- --  9>",
+        elevatorTenFloors10Capacity.toString());
+    assertEquals("[0|^|O 3]< --  1  2  3 --  5  6 -- --  9>", copy.toString());
+  }
+
   /**
    * Make the elevator go up and down 100000 times.
    * This is a stress test to see if the elevator can handle a large number of requests.